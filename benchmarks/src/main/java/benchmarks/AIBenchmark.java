@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.AI;
+import ai.AIMove;
+import ai.difficulty.Difficulty.DifficultyLevel;
+import game.KeyHistory;
+import game.Position;
+import pieces.Piece;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         AIBenchmark times a whole AI.makeMove: finding the possible moves,
+ *         analyzing each one, and looking ahead
+ *
+ *         - moves are analyzed on one thread and the random offsets are seeded,
+ *         so every call does the same work
+ *
+ *         - the TranspositionTable is cleared before every call, so later calls
+ *         don't get faster by remembering earlier ones
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIBenchmark {
+
+	@Param({ "OPENING", "MIDDLEGAME", "ENDGAME" })
+	private GamePhase phase;
+
+	@Param({ "NOOBBOT", "BESTBOT" })
+	private DifficultyLevel difficulty;
+
+	private ArrayList<Piece> pieces;
+	private Position position;
+	private KeyHistory keyHistory;
+	private AI ai;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pieces = phase.getPieces();
+		position = phase.getPosition();
+		keyHistory = new KeyHistory();
+
+		ai = new AI();
+		ai.setParallel(false);
+		ai.initialize(phase.getPlayerTurn(), difficulty);
+		ai.setSeed(1L);
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTable() {
+		ai.getSearcher().getTranspositionTable().clear();
+	}
+
+	@Benchmark
+	public AIMove makeMove() {
+		return ai.makeMove(pieces, position, keyHistory);
+	}
+}
@@ -0,0 +1,39 @@
+package benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         BenchmarkRunner runs the benchmarks like JMH's own main (it takes
+ *         the same arguments), but always adds the GC profiler so the
+ *         allocation rate is reported next to ops/s
+ *
+ *         usage: java -jar benchmarks.jar [benchmark regex] [JMH options]
+ *
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		Options options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build();
+		Runner runner = new Runner(options);
+
+		if (commandLine.shouldHelp()) {
+			commandLine.showHelp();
+		} else if (commandLine.shouldList()) {
+			runner.list();
+		} else {
+			runner.run();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import game.Position;
+import game.helpers.Converter;
+import game.helpers.FEN;
+import pieces.Piece;
+import pieces.Piece.Color;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         GamePhase holds the fixed positions every benchmark is run on, one
+ *         from each part of the game
+ *
+ */
+public enum GamePhase {
+	// Ruy Lopez, both sides can still castle
+	OPENING("r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 4"),
+	// castled, every minor piece developed
+	MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"),
+	// rook and pawns
+	ENDGAME("8/5pk1/6p1/3R4/5P2/6PK/r7/8 w - - 0 40");
+
+	public String fen;
+
+	GamePhase(String fen) {
+		this.fen = fen;
+	}
+
+	public Position getPosition() {
+		return FEN.toPosition(fen);
+	}
+
+	/**
+	 * @return the position's pieces, sorted the way the game keeps them
+	 */
+	public ArrayList<Piece> getPieces() {
+		ArrayList<Piece> pieces = Converter.toPieces(getPosition());
+		Collections.sort(pieces);
+		return pieces;
+	}
+
+	public Color getPlayerTurn() {
+		return getPosition().getSideToMove();
+	}
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ai.Logger;
+import ai.analyzer.Exchange;
+import ai.difficulty.SquareValue;
+import game.AttackMap;
+import game.EndGameCheck;
+import game.KeyHistory;
+import game.Move;
+import game.Position;
+import game.helpers.Copier;
+import pieces.Piece;
+import pieces.Piece.Color;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         RulesBenchmark times the pieces of the rules and analysis that the AI
+ *         calls over and over
+ *
+ *         - Exchange and getControlledSquares are run for every piece on the
+ *         board, so one op is a whole board's worth
+ *
+ *         - controlledSquares includes making the board's AttackMap, the way
+ *         each BoardAnalyzer does
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+	@Param({ "OPENING", "MIDDLEGAME", "ENDGAME" })
+	private GamePhase phase;
+
+	private ArrayList<Piece> pieces;
+	private LinkedList<Move> history;
+	private KeyHistory keyHistory;
+	private Color playerTurn;
+	private Position position;
+
+	@Setup
+	public void setUp() {
+		pieces = phase.getPieces();
+		history = new LinkedList<Move>();
+		keyHistory = new KeyHistory();
+		playerTurn = phase.getPlayerTurn();
+		position = phase.getPosition();
+	}
+
+	@Benchmark
+	public EndGameCheck endGameCheck() {
+		return new EndGameCheck(pieces, history, keyHistory, playerTurn);
+	}
+
+	@Benchmark
+	public void exchange(Blackhole blackhole) {
+		Exchange exchange = new Exchange(new AttackMap(pieces), Logger.SILENT);
+		for (int i = 0; i < pieces.size(); i++) {
+			exchange.evaluate(pieces.get(i));
+			blackhole.consume(exchange.getLoss());
+		}
+	}
+
+	@Benchmark
+	public ArrayList<Piece> copyBoard() {
+		return Copier.copyBoard(pieces);
+	}
+
+	@Benchmark
+	public void controlledSquares(Blackhole blackhole) {
+		AttackMap attackMap = new AttackMap(pieces);
+		for (int i = 0; i < pieces.size(); i++) {
+			blackhole.consume(SquareValue.getControlledSquares(pieces.get(i), attackMap));
+		}
+	}
+
+	@Benchmark
+	public boolean inCheck() {
+		return EndGameCheck.inCheck(pieces, playerTurn);
+	}
+
+	@Benchmark
+	public void controlledSquaresPosition(Blackhole blackhole) {
+		long pieces = position.getOccupied();
+		int square;
+
+		while (pieces != 0L) {
+			square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+			blackhole.consume(SquareValue.getControlledSquares(position, square));
+		}
+	}
+}
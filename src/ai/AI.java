@@ -2,82 +2,286 @@ package ai;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 
+import ai.AIMove.Component;
 import ai.analyzer.MoveAnalyzer;
 import ai.difficulty.BestBot;
 import ai.difficulty.Difficulty.DifficultyLevel;
 import ai.difficulty.NoobBot;
-import game.Move;
-import game.Square;
+import ai.search.Searcher;
+import ai.search.TranspositionTable;
+import game.KeyHistory;
+import game.Position;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
 import game.helpers.Printer;
 import pieces.Piece;
 import pieces.Piece.Color;
+import pieces.Piece.Type;
 
 /**
  * @author John Hoffmann
  * 
  *         AI is responsible for analyzing a board and producing the best move
  *         in response
+ * 
+ *         - reasoning isn't logged while the AI plays (unless it's tracing).
+ *         explainMoves analyzes the best moves again once their reasoning is
+ *         wanted
+ * 
+ *         - the time budget covers the analysis and the search. Moves the
+ *         analysis didn't get to in time aren't considered. Difficulties that
+ *         don't look ahead (NoobBot) only have the analysis, so the budget just
+ *         cuts it short, and they don't use the rest of it
+ * 
+ *         - stop and clearStop can be called from any thread. A stop called
+ *         before makeMove starts (but after clearStop) still stops it
  *
  */
 public class AI {
 	private Color color;
 	private ai.difficulty.Difficulty settings;
 	private MoveAnalyzer moveAnalyzer;
+	private Searcher searcher;
+	private int hashSize; // the size of the TranspositionTable in megabytes
+	private boolean parallel; // true if moves are analyzed on every core
+	private int threads; // the amount of threads that search
+
+	// time limits in milliseconds (0 = no limit, search to the Difficulty's depth)
+	private long moveTime; // a fixed amount of time for every move
+	private long clockTime; // the time left on the AI's clock
+	private long increment; // the time added to the clock after each move
 	private ArrayList<AIMove> possibleMoves;
+	private int[] packedMoves; // possibleMoves as packed moves, in the same order
+	private int[] analysisIndexes; // the index each packed move was analyzed with
+	private double[] lookAheads; // the look ahead points of each packed move
+	private boolean tracing; // true if every move's reasoning is logged and printed
+	private AnalysisListener listener; // told about each move made, or null
+
+	// the game the last move was made in (for explaining it)
+	private ArrayList<Piece> pieces;
+	private Position position; // a copy of the game's Position
+	private KeyHistory keyHistory;
 
 	public AI() {
 		color = null;
 		settings = null;
 		moveAnalyzer = null;
+		searcher = null;
+		hashSize = TranspositionTable.DEFAULT_SIZE_MB;
+		parallel = true;
+		threads = 1;
+		tracing = false;
 		possibleMoves = null;
 	}
 
 	/**
 	 * makes a move after analyzing the given game
 	 * 
-	 * @param pieces  the ArrayList<Piece> of pieces
-	 * @param history the LinkedList of past moves
+	 * @param pieces     the ArrayList<Piece> of pieces
+	 * @param game       the game's Position (matching pieces), which the move
+	 *                   counters are taken from (unchanged once done)
+	 * @param keyHistory the KeyHistory of the positions before each past move
 	 * @return the highest scoring AIMove
 	 */
-	public AIMove makeMove(ArrayList<Piece> pieces, LinkedList<Move> history) {
-		possibleMoves = getAllPossibleMoves(pieces);
+	public AIMove makeMove(ArrayList<Piece> pieces, Position game, KeyHistory keyHistory) {
+		long startTime = System.currentTimeMillis();
+		long budget = getTimeBudget();
+
+		// the counters can't be found from the pieces (or a game started from a FEN)
+		Position position = new Position(game);
+		possibleMoves = getAllPossibleMoves(position);
+		lookAheads = null;
+		this.pieces = pieces;
+		this.position = position;
+		this.keyHistory = keyHistory;
 
-		moveAnalyzer.analyzeMoves(pieces, possibleMoves, history);
+		// this position is in the past for every move being analyzed
+		keyHistory.add(position.getKey());
+		moveAnalyzer.setDeadline(budget > 0 ? startTime + budget : 0);
+		moveAnalyzer.analyzeMoves(pieces, possibleMoves, position.getHalfMoveClock(), keyHistory);
+		removeUnanalyzedMoves();
+
+		// look ahead at the replies to each move
+		AIMove bestMove = null;
+		if (settings.getSearchDepth() > 1) {
+			// the search gets whatever time the analysis didn't use
+			if (budget > 0) {
+				budget = Math.max(budget - (System.currentTimeMillis() - startTime), 1);
+			}
+			searcher.setTimeLimit(budget);
+			bestMove = lookAhead(position, keyHistory);
+		}
+		keyHistory.removeLast();
 
 		Collections.sort(possibleMoves);
 		Collections.reverse(possibleMoves);
 
-		Printer.printPossibleMoves(possibleMoves);
+		// the search's best move goes first (other moves' scores are only limits)
+		if (bestMove != null) {
+			possibleMoves.remove(bestMove);
+			possibleMoves.add(0, bestMove);
+		}
+
+		if (tracing) {
+			Printer.printPossibleMoves(possibleMoves);
+		}
+		if (listener != null) {
+			listener.moveAnalyzed(this, position, possibleMoves);
+		}
 		return possibleMoves.get(0);
 	}
 
 	/**
-	 * makes an ArrayList<Piece> of all of the possible AIMoves
+	 * logs the reasoning of the best possible moves from the last makeMove, by
+	 * analyzing them again (has to be called before the game's pieces or Position
+	 * change)
 	 * 
-	 * @param pieces the ArrayList<Piece> of pieces
-	 * @return the ArrayList<Piece> of possible AIMoves
+	 * @param amount the amount of moves being explained, best first
 	 */
-	private ArrayList<AIMove> getAllPossibleMoves(ArrayList<Piece> pieces) {
-		ArrayList<AIMove> possibleMoves = new ArrayList<AIMove>();
-		Square destination = new Square();
+	public void explainMoves(int amount) {
+		int index;
+		AIMove m;
+		AIMove explained;
 
-		// skip opponent's pieces
-		for (Piece p : pieces) {
-			if (p.getColor() != color) {
+		if (possibleMoves == null) {
+			return;
+		}
+		keyHistory.add(position.getKey());
+		for (int i = 0; i < Math.min(amount, possibleMoves.size()); i++) {
+			m = possibleMoves.get(i);
+			if (m.isExplained()) {
 				continue;
 			}
-			// check every square for possible moves
-			for (int c = 1; c < 9; c++) {
-				for (int r = 1; r < 9; r++) {
-					destination.setPosition(c, r);
-
-					if (p.hasLegalMove(destination, pieces)) {
-						possibleMoves.add(new AIMove(p, destination, pieces));
-					}
-				}
+
+			index = 0;
+			while (packedMoves[index] != m.getMove()) {
+				index++;
+			}
+
+			// the move's Random comes from its index when it was analyzed
+			explained = moveAnalyzer.explainMove(pieces, m.getMove(), analysisIndexes[index],
+					position.getHalfMoveClock(), keyHistory);
+			if (lookAheads != null) {
+				explained.labelReasoning("look ahead");
+				explained.addToScore(Component.LOOK_AHEAD, lookAheads[index], "--Look ahead--");
+			}
+			m.setLogger(explained.getLogger());
+		}
+		keyHistory.removeLast();
+	}
+
+	/**
+	 * takes the moves the analysis didn't get to (it ran out of time or was
+	 * stopped) out of possibleMoves and packedMoves
+	 */
+	private void removeUnanalyzedMoves() {
+		int count = 0;
+
+		for (int i = 0; i < possibleMoves.size(); i++) {
+			if (possibleMoves.get(i).isAnalyzed()) {
+				possibleMoves.set(count, possibleMoves.get(i));
+				packedMoves[count] = packedMoves[i];
+				analysisIndexes[count] = analysisIndexes[i];
+				count++;
+			}
+		}
+		while (possibleMoves.size() > count) {
+			possibleMoves.remove(possibleMoves.size() - 1);
+		}
+	}
+
+	/**
+	 * searches the possible moves, adding how much better or worse each move looks
+	 * once the replies are seen
+	 * 
+	 * @param position   the Position the AI is moving from
+	 * @param keyHistory the KeyHistory of the positions before each past move
+	 * @return the best AIMove found by the search
+	 */
+	private AIMove lookAhead(Position position, KeyHistory keyHistory) {
+		double[] scores = new double[possibleMoves.size()];
+
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] = possibleMoves.get(i).getScore();
+		}
+		int best = searcher.search(position, keyHistory, packedMoves, scores, scores.length);
+
+		lookAheads = new double[scores.length];
+		for (int i = 0; i < scores.length; i++) {
+			lookAheads[i] = searcher.getLookAhead(i);
+			possibleMoves.get(i).setExact(searcher.isExact(i));
+			possibleMoves.get(i).labelReasoning("look ahead");
+			possibleMoves.get(i).addToScore(Component.LOOK_AHEAD, lookAheads[i], "--Look ahead--");
+		}
+		return best < 0 ? null : possibleMoves.get(best);
+	}
+
+	/**
+	 * decides how long the AI can think about this move. A fixed move time comes
+	 * first, otherwise a share of the clock is used (about 1/30 of it, plus most of
+	 * the increment, but never more than half of it)
+	 * 
+	 * @return the time budget in milliseconds, 0 if there is no limit
+	 */
+	private long getTimeBudget() {
+		if (moveTime > 0) {
+			return moveTime;
+		}
+		if (clockTime > 0) {
+			return Math.max(Math.min(clockTime / 30 + increment * 3 / 4, clockTime / 2), 1);
+		}
+		return 0;
+	}
+
+	/**
+	 * stops the AI's analysis and search (from any thread), so makeMove returns
+	 * with the best move found so far. The AI stays stopped until clearStop is
+	 * called
+	 */
+	public void stop() {
+		if (moveAnalyzer != null) {
+			moveAnalyzer.stop();
+		}
+		if (searcher != null) {
+			searcher.stop();
+		}
+	}
+
+	/**
+	 * lets the AI think again after stop was called. Called when a move is asked
+	 * for, before makeMove, so a stop that comes in between isn't lost
+	 */
+	public void clearStop() {
+		if (moveAnalyzer != null) {
+			moveAnalyzer.clearStop();
+		}
+		if (searcher != null) {
+			searcher.clearStop();
+		}
+	}
+
+	/**
+	 * makes an ArrayList<AIMove> of all of the possible moves
+	 * 
+	 * @param position the board as a Position
+	 * @return the ArrayList<AIMove> of possible AIMoves
+	 */
+	private ArrayList<AIMove> getAllPossibleMoves(Position position) {
+		ArrayList<AIMove> possibleMoves = new ArrayList<AIMove>();
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		packedMoves = new int[count];
+		analysisIndexes = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			// the AI always promotes to a queen
+			if (MoveEncoder.isPromotion(moves[i]) && MoveEncoder.getPromotion(moves[i]) != Type.QUEEN) {
+				continue;
 			}
+			packedMoves[possibleMoves.size()] = moves[i];
+			analysisIndexes[possibleMoves.size()] = possibleMoves.size();
+			possibleMoves.add(new AIMove(moves[i], tracing));
 		}
 		return possibleMoves;
 	}
@@ -99,12 +303,134 @@ public class AI {
 		}
 
 		moveAnalyzer = new MoveAnalyzer(settings);
+		moveAnalyzer.setParallel(parallel);
+		searcher = new Searcher(settings, new TranspositionTable(hashSize));
+		searcher.setThreads(threads);
+	}
+
+	/**
+	 * sets how much memory the search can use to remember positions
+	 * 
+	 * @param hashSize the size of the TranspositionTable in megabytes
+	 */
+	public void setHashSize(int hashSize) {
+		this.hashSize = hashSize;
+		if (searcher != null) {
+			searcher.setTranspositionTable(new TranspositionTable(hashSize));
+		}
+	}
+
+	public int getHashSize() {
+		return hashSize;
+	}
+
+	/**
+	 * sets whether moves are analyzed on every core or one at a time (the scores
+	 * are the same either way)
+	 * 
+	 * @param parallel true to analyze moves in parallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+		if (moveAnalyzer != null) {
+			moveAnalyzer.setParallel(parallel);
+		}
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * sets whether the reasoning of every possible move is logged and printed.
+	 * Without tracing, only the moves given to explainMoves are explained
+	 * 
+	 * @param tracing true to log every move's reasoning
+	 */
+	public void setTracing(boolean tracing) {
+		this.tracing = tracing;
+	}
+
+	public boolean isTracing() {
+		return tracing;
+	}
+
+	public AnalysisListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param listener told about each move the AI makes, or null
+	 */
+	public void setListener(AnalysisListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * sets how many threads look ahead at the same time. With more than one, the
+	 * search isn't repeatable, since it depends on how the threads are timed
+	 * 
+	 * @param threads the amount of threads (at least 1)
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(threads, 1);
+		if (searcher != null) {
+			searcher.setThreads(threads);
+		}
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * seeds the AI's random numbers, so the same games can be played again (must
+	 * be called after initialize)
+	 * 
+	 * @param seed the seed for the Difficulty's random numbers
+	 */
+	public void setSeed(long seed) {
+		settings.setSeed(seed);
+	}
+
+	/**
+	 * gives the AI a fixed amount of time for every move
+	 * 
+	 * @param moveTime the time in milliseconds, 0 for no limit
+	 */
+	public void setMoveTime(long moveTime) {
+		this.moveTime = moveTime;
+	}
+
+	/**
+	 * gives the AI a clock to manage (only used without a fixed move time)
+	 * 
+	 * @param clockTime the time left on the AI's clock in milliseconds, 0 for no
+	 *                  limit
+	 * @param increment the time added after each move in milliseconds
+	 */
+	public void setClock(long clockTime, long increment) {
+		this.clockTime = clockTime;
+		this.increment = increment;
+	}
+
+	public Searcher getSearcher() {
+		return searcher;
 	}
 
 	public Color getColor() {
 		return color;
 	}
 
+	/**
+	 * changes which color the AI plays, keeping everything it has learned
+	 * 
+	 * @param color the AI's new color
+	 */
+	public void setColor(Color color) {
+		this.color = color;
+	}
+
 	public ArrayList<AIMove> getPossibleMoves() {
 		return possibleMoves;
 	}
@@ -1,33 +1,70 @@
 package ai;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
-import game.Move;
-import game.Square;
-import pieces.Piece;
+import game.Position;
+import game.helpers.MoveEncoder;
 
 /**
  * 
  * @author John Hoffmann
  * 
- *         AIMove adds a score and Logger to give reasons to points awarded to
- *         moves
+ *         AIMove adds a score and Logger to a packed move to give reasons to
+ *         points awarded to moves
+ * 
+ *         - the move itself is only the packed int, a game.Move is made from it
+ *         once the move is played (see Move's constructors)
+ * 
+ *         - reasoning is only logged for explained moves. Other moves only keep
+ *         their score, until AI.explainMoves analyzes them again
+ * 
+ *         - the score is also kept split into its Components (always, since
+ *         they're just numbers), which add up to the score. getRecord gives
+ *         them as fields that can be written as JSON
+ * 
+ *         - the look ahead of a move that wasn't the search's best is only an
+ *         upper bound (the move was searched just far enough to rule it out),
+ *         so its score isn't exact either. getRecord says which it is
  *
  */
-public class AIMove extends Move implements Comparable<AIMove> {
+public class AIMove implements Comparable<AIMove> {
+
+	// enum for the parts of a move's score
+	public enum Component {
+		OFFSET("offset"), HESITATION("hesitation"), CAPTURE("capture"), PIECE_BETTERMENT("pieceBetterment"),
+		WORST_DANGER("worstDanger"), END_GAME("endGame"), LOOK_AHEAD("lookAhead");
 
+		public String label; // the component's name in records
+
+		Component(String label) {
+			this.label = label;
+		}
+	}
+
+	private int move; // the packed move
 	private double score; // the move's score
+	private double[] components; // the points from each Component (by ordinal)
+	private boolean analyzed; // false if the analysis stopped before reaching the move
+	private boolean exact; // false if the look ahead (and the score) is only an upper bound
 	Logger logger; // logger that logs reasoning for the move
 
 	/**
-	 * @param piece       the piece being moved
-	 * @param destination the piece's valid destination
-	 * @param pieces      the ArrayList<Piece> of pieces
+	 * @param move the packed move
 	 */
-	public AIMove(Piece piece, Square destination, ArrayList<Piece> pieces) {
-		super(piece, destination, pieces);
+	public AIMove(int move) {
+		this(move, false);
+	}
+
+	/**
+	 * @param move      the packed move
+	 * @param explained true if the reasoning for the move's points is logged
+	 */
+	public AIMove(int move, boolean explained) {
+		this.move = move;
 		score = 0.0;
-		logger = new Logger();
+		components = new double[Component.values().length];
+		exact = true;
+		logger = explained ? new Logger() : Logger.SILENT;
 	}
 
 	/**
@@ -37,16 +74,19 @@ public class AIMove extends Move implements Comparable<AIMove> {
 	 */
 	public void offSetScore(double points) {
 		score += points;
+		components[Component.OFFSET.ordinal()] += points;
 	}
 
 	/**
 	 * adds points to the current score and logs any amounts
 	 * 
-	 * @param points the points being added to score
-	 * @param reason the reason for the points being added
+	 * @param component the part of the score the points are for
+	 * @param points    the points being added to score
+	 * @param reason    the reason for the points being added
 	 */
-	public void addToScore(double points, String reason) {
+	public void addToScore(Component component, double points, String reason) {
 		score += points;
+		components[component.ordinal()] += points;
 		logger.addToScore(points, reason, Logger.Difference.ANY);
 	}
 
@@ -54,13 +94,16 @@ public class AIMove extends Move implements Comparable<AIMove> {
 	 * adds points to the current score and logs any amounts. Includes an
 	 * additional, more detailed sub logger
 	 * 
+	 * @param component  the part of the score the points are for
 	 * @param points     the points being added to score
 	 * @param reason     the reason for the points being added
 	 * @param difference the difference in points required for this to be logged
 	 * @param logger     the sub logger that should also be logged
 	 */
-	public void addToScore(double points, String reason, Logger.Difference difference, Logger logger) {
+	public void addToScore(Component component, double points, String reason, Logger.Difference difference,
+			Logger logger) {
 		score += points;
+		components[component.ordinal()] += points;
 		this.logger.addToScore(points, reason, difference, logger);
 	}
 
@@ -73,6 +116,21 @@ public class AIMove extends Move implements Comparable<AIMove> {
 		logger.labelReasoning(label);
 	}
 
+	/**
+	 * @return the move (in UCI notation), its score, whether the score is exact,
+	 *         and the points from each Component, in that order
+	 */
+	public LinkedHashMap<String, Object> getRecord() {
+		LinkedHashMap<String, Object> record = new LinkedHashMap<String, Object>();
+		record.put("move", MoveEncoder.toString(move));
+		record.put("score", score);
+		record.put("exact", exact);
+		for (Component c : Component.values()) {
+			record.put(c.label, components[c.ordinal()]);
+		}
+		return record;
+	}
+
 	/**
 	 * labels and prints everything written in reasoning
 	 */
@@ -82,14 +140,50 @@ public class AIMove extends Move implements Comparable<AIMove> {
 	}
 
 	// getters and setters
+	public int getMove() {
+		return move;
+	}
+
 	public double getScore() {
 		return score;
 	}
 
+	public double getComponent(Component component) {
+		return components[component.ordinal()];
+	}
+
 	public Logger getLogger() {
 		return logger;
 	}
 
+	/**
+	 * @param logger the Logger with the move's reasoning (from another analysis of
+	 *               the same move)
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	public boolean isExplained() {
+		return logger.isEnabled();
+	}
+
+	public boolean isAnalyzed() {
+		return analyzed;
+	}
+
+	public void setAnalyzed(boolean analyzed) {
+		this.analyzed = analyzed;
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+
+	public void setExact(boolean exact) {
+		this.exact = exact;
+	}
+
 	@Override
 	public int compareTo(AIMove o) {
 		int score = (int) (this.score * 100);
@@ -99,7 +193,8 @@ public class AIMove extends Move implements Comparable<AIMove> {
 
 	@Override
 	public String toString() {
-		return String.format("[%s, %.2f]", super.toString(), score);
+		return String.format("[%s to %s, %.2f]", Position.getTypeOf(MoveEncoder.getPiece(move)),
+				Position.getSquare(MoveEncoder.getTo(move)), score);
 	}
 
 }
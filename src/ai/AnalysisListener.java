@@ -0,0 +1,26 @@
+package ai;
+
+import java.util.ArrayList;
+
+import game.Position;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         AnalysisListener is told about every move the AI makes, with the
+ *         score of each possible move, so the scores can be recorded and
+ *         compared across many games
+ *
+ */
+public interface AnalysisListener {
+
+	/**
+	 * called each time the AI has picked a move (on the AI's thread)
+	 *
+	 * @param ai            the AI that made the move
+	 * @param position      the Position the move is made from
+	 * @param possibleMoves every AIMove the AI scored, the move being made first
+	 */
+	public void moveAnalyzed(AI ai, Position position, ArrayList<AIMove> possibleMoves);
+}
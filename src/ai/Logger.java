@@ -11,6 +11,10 @@ import game.helpers.ConsoleColors;
  *         Logger logs all AI reasoning for adding or subtracting points to a
  *         move
  *
+ *         - reasoning is only wanted for the moves being explained, so every
+ *         other move shares the SILENT Logger, which logs nothing. Callers that
+ *         build their reasons out of several strings check isEnabled first
+ *
  */
 public class Logger implements ConsoleColors {
 
@@ -25,10 +29,22 @@ public class Logger implements ConsoleColors {
 		}
 	}
 
+	// a Logger that never logs anything (safe to share between threads)
+	public static final Logger SILENT = new Logger(false);
+
 	private StringWriter stringWriter;
 	private PrintWriter printWriter;
+	private boolean enabled; // false if nothing is logged
 
 	public Logger() {
+		this(true);
+	}
+
+	/**
+	 * @param enabled true if reasoning is logged, false to ignore it
+	 */
+	private Logger(boolean enabled) {
+		this.enabled = enabled;
 		stringWriter = new StringWriter();
 		printWriter = new PrintWriter(stringWriter);
 	}
@@ -41,7 +57,7 @@ public class Logger implements ConsoleColors {
 	 * @param difference the difference in points required for this to be logged
 	 */
 	public void addToScore(double points, String reason, Difference difference) {
-		if (Math.abs(points) >= difference.amount) {
+		if (enabled && Math.abs(points) >= difference.amount) {
 			printReason(points, reason);
 		}
 	}
@@ -56,7 +72,7 @@ public class Logger implements ConsoleColors {
 	 * @param logger     the sub logger that should also be logged with this logger
 	 */
 	public void addToScore(double points, String reason, Difference difference, Logger logger) {
-		if (Math.abs(points) >= difference.amount) {
+		if (enabled && Math.abs(points) >= difference.amount) {
 			printWriter.print(logger.getStringWriter());
 			printReason(points, reason);
 		}
@@ -71,7 +87,7 @@ public class Logger implements ConsoleColors {
 	 * @return points the amount of points clarified
 	 */
 	public double addClarification(double points, String reason, Difference difference) {
-		if (Math.abs(points) >= difference.amount) {
+		if (enabled && Math.abs(points) >= difference.amount) {
 			printClarification(points, reason);
 		}
 		return points;
@@ -83,7 +99,9 @@ public class Logger implements ConsoleColors {
 	 * @param label the label being added
 	 */
 	public void labelReasoning(String label) {
-		printWriter.println("\t" + YELLOW + "(" + label + ")" + RESET);
+		if (enabled) {
+			printWriter.println("\t" + YELLOW + "(" + label + ")" + RESET);
+		}
 	}
 
 	/**
@@ -92,7 +110,9 @@ public class Logger implements ConsoleColors {
 	 * @param reason the partial reason being added
 	 */
 	public void print(String reason) {
-		printWriter.print(reason);
+		if (enabled) {
+			printWriter.print(reason);
+		}
 	}
 
 	/**
@@ -130,4 +150,8 @@ public class Logger implements ConsoleColors {
 		return stringWriter;
 	}
 
+	public boolean isEnabled() {
+		return enabled;
+	}
+
 }
@@ -1,18 +1,23 @@
 package ai.analyzer;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
-import ai.AIMove;
+import java.util.Random;
 import ai.Logger;
 import ai.difficulty.Difficulty;
+import ai.difficulty.Inquiry;
+import game.AttackMap;
 import game.EndGameCheck;
-import game.Move;
+import game.KeyHistory;
+import game.Position;
+import game.Square;
 import game.EndGameCheck.Ending;
-import game.helpers.Copier;
+import game.helpers.Bitboards;
 import game.helpers.Finder;
+import game.helpers.MoveEncoder;
 import game.helpers.MoveExecuter;
 import pieces.Piece;
 import pieces.Piece.Color;
+import pieces.Piece.Type;
 
 /**
  * 
@@ -26,10 +31,23 @@ import pieces.Piece.Color;
  * 
  *         - What state the game is in (Opening, Mid, Late game)
  * 
- *         BoardAnalyzer also tests a given move, gathering some information
- *         about that board's state.
+ *         BoardAnalyzer also tests a given (packed) move, gathering some
+ *         information about that board's state.
  * 
  *         - Are the pieces in danger of being captured
+ * 
+ *         The move is made on the board itself, so undoMove must be called once
+ *         the analysis is finished
+ * 
+ *         - the board before the move is the same for every move, so it is
+ *         analyzed once (see the first constructor) and shared by each move's
+ *         analysis
+ * 
+ *         - after the move, only the pieces whose control could have changed
+ *         get their position scores worked out again
+ * 
+ *         - the loggers only log when the move is being explained, otherwise
+ *         they're Logger.SILENT
  *
  */
 public class BoardAnalyzer {
@@ -43,14 +61,21 @@ public class BoardAnalyzer {
 	private Piece.Color friend;
 	private ArrayList<Piece> pieces;
 	private Difficulty settings;
-	private AIMove move;
+	private int move; // the packed move being tested
+	private Piece movingPiece; // the piece that moved (the pawn if it promoted)
+	private Piece capturePiece; // the piece the move captured (null if there is none)
 	private Piece pieceAfterMoving;
+	private MoveExecuter.Undo undo;
+	private AttackMap attackMap; // kept up to date with the tested move
+	private boolean canCastleStill;
+	private Random random; // this move's own random numbers
 
 	// loggers
-	private Logger hesitationLogger = new Logger();
-	private Logger captureLogger = new Logger();
-	private Logger dangerLogger = new Logger();
-	private Logger endGameLogger = new Logger();
+	private boolean explain; // true if the reasoning is logged
+	private Logger hesitationLogger = Logger.SILENT;
+	private Logger captureLogger = Logger.SILENT;
+	private Logger dangerLogger = Logger.SILENT;
+	private Logger endGameLogger = Logger.SILENT;
 
 	// material and position point worth
 	private PointTotal currPointTotal;
@@ -59,47 +84,142 @@ public class BoardAnalyzer {
 	// game state (time-wise)
 	private GameState gameState;
 	private int unmovedMinorPieces;
+	private int halfMoveClock; // moves since the last pawn move or capture
 
-	// future pieces
-	private ArrayList<Piece> futurePieces;
+	// future state
 	private Ending ending;
 	private double worstDanger;
+	private boolean dangerInitialized;
 
 	/**
-	 * @param pieces   the ArrayList<Piece> of pieces
-	 * @param history  the LinkedList of past moves
-	 * @param settings the Difficulty
-	 * @param logger   a logger to make more detailed analysis
+	 * analyzes the board as it is, before any move is tested
+	 * 
+	 * @param pieces        the ArrayList<Piece> of pieces
+	 * @param halfMoveClock the amount of moves since the last pawn move or capture
+	 * @param friend        the color of the AI
+	 * @param settings      the Difficulty
 	 */
-	public BoardAnalyzer(ArrayList<Piece> pieces, LinkedList<Move> history, AIMove move, Difficulty settings) {
-		friend = move.getPiece().getColor();
+	public BoardAnalyzer(ArrayList<Piece> pieces, int halfMoveClock, Piece.Color friend, Difficulty settings) {
+		this.friend = friend;
 		this.pieces = pieces;
 		this.settings = settings;
-		this.move = move;
 		initializeGameState();
+		this.halfMoveClock = halfMoveClock;
 
 		// get the current state of the board
+		canCastleStill = Inquiry.canCastleStill(pieces, friend);
+		attackMap = new AttackMap(pieces);
 		currPointTotal = new PointTotal(pieces);
+	}
+
+	/**
+	 * @param current    the BoardAnalyzer of the board before the move
+	 * @param pieces     the ArrayList<Piece> of pieces (the current board or a copy
+	 *                   of it)
+	 * @param keyHistory the KeyHistory of the positions before each past move
+	 *                   (including this one)
+	 * @param move       the packed move being tested
+	 * @param random     the Random used for this move only
+	 * @param explain    true if the reasoning is logged, false otherwise
+	 */
+	public BoardAnalyzer(BoardAnalyzer current, ArrayList<Piece> pieces, KeyHistory keyHistory, int move,
+			Random random, boolean explain) {
+		friend = current.friend;
+		this.pieces = pieces;
+		settings = current.settings;
+		this.move = move;
+		this.random = random;
+		this.explain = explain;
+		if (explain) {
+			hesitationLogger = new Logger();
+			captureLogger = new Logger();
+			dangerLogger = new Logger();
+			endGameLogger = new Logger();
+		}
+
+		// the current state of the board was found once for every move
+		gameState = current.gameState;
+		unmovedMinorPieces = current.unmovedMinorPieces;
+		canCastleStill = current.canCastleStill;
+		attackMap = new AttackMap(current.attackMap);
+		currPointTotal = current.currPointTotal;
 
 		// test the move
-		futurePieces = Copier.copyBoard(pieces);
-		MoveExecuter.testMove(move, futurePieces);
-		pieceAfterMoving = Finder.getPieceOnSquare(move.getDestination(), futurePieces);
+		movingPiece = Finder.getPieceOnSquare(getFrom(), pieces);
+		if (MoveEncoder.isCapture(move)) {
+			capturePiece = Finder.getPieceOnSquare(Position.getSquare(MoveEncoder.getCaptureSquare(move)), pieces);
+		}
+		undo = MoveExecuter.makeMove(move, pieces, attackMap);
+		pieceAfterMoving = Finder.getPieceOnSquare(getDestination(), pieces);
 
-		// get the new state of the board
-		futurePointTotal = new PointTotal(futurePieces);
-		initializeDangerLevels();
+		// get the new state of the board (danger levels are found once they're needed)
+		futurePointTotal = new PointTotal(pieces, currPointTotal, getChangedControl(current.attackMap));
 
 		// see if the game has ended with this move
-		history.add(move);
-		EndGameCheck endGameCheck = new EndGameCheck(futurePieces, history, Color.getOppColor(friend));
-		history.removeLast();
+		halfMoveClock = movingPiece.getType() == Type.PAWN || capturePiece != null ? 0 : current.halfMoveClock + 1;
+		EndGameCheck endGameCheck = new EndGameCheck(pieces, halfMoveClock, keyHistory, Color.getOppColor(friend));
 		ending = endGameCheck.getEnding();
 	}
 
+	/**
+	 * takes back the tested move, leaving the board as it was before the analysis
+	 */
+	public void undoMove() {
+		MoveExecuter.unmakeMove(undo, pieces, attackMap);
+	}
+
+	/**
+	 * finds the squares of the pieces whose position scores could have changed
+	 * with the tested move
+	 * 
+	 * @param before the AttackMap of the board before the move
+	 * @return the bitboard of squares whose position scores need working out again
+	 */
+	private long getChangedControl(AttackMap before) {
+		long changed = attackMap.getUpdated();
+
+		// during the late game, pieces controlling the opponent's king's escape
+		// squares are scored by which of them are empty
+		if (gameState == GameState.LATEGAME) {
+			int oppKing = attackMap.getKingSquare(Color.getOppColor(friend));
+			long escapes = Bitboards.KING_ATTACKS[oppKing] & (before.getOccupied() ^ attackMap.getOccupied());
+			long others = attackMap.getOccupied() & ~changed;
+			int square;
+
+			while (escapes != 0L && others != 0L) {
+				square = Long.numberOfTrailingZeros(others);
+				others &= others - 1;
+				if (((attackMap.getAttacks(square) | 1L << square) & escapes) != 0L) {
+					changed |= 1L << square;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * finds the square a piece stood on before the tested move
+	 * 
+	 * @param piece the piece being looked up
+	 * @return the index of the piece's square before the move
+	 */
+	private int getSquareBefore(Piece piece) {
+		if (piece == pieceAfterMoving) {
+			return MoveEncoder.getFrom(move);
+		}
+		if (MoveEncoder.isCastle(move) && piece.getIndex() == MoveEncoder.getRookTo(move)) {
+			return MoveEncoder.getRookFrom(move);
+		}
+		return piece.getIndex();
+	}
+
 	/**
 	 * PointTotal adds up the material and position worth of each piece. It also
-	 * logs how each piece's position score has changed
+	 * logs how each piece's position score has changed since an earlier PointTotal
+	 * 
+	 * position worths are kept by the PointTotal by square (not by the pieces), so
+	 * analyses never write to pieces they share, and the PointTotal of the board
+	 * before the move can be shared by every move's analysis
 	 */
 	public class PointTotal {
 		// literal point worth of pieces
@@ -110,27 +230,64 @@ public class BoardAnalyzer {
 		private double aiPosition = 0.0;
 		private double oppPosition = 0.0;
 
+		// the position score of the piece on each square
+		private double[] positionWorths = new double[64];
+
 		// logger for how position scores have changed
-		private Logger pieceBetterment = new Logger();
+		private Logger pieceBetterment = explain ? new Logger() : Logger.SILENT;
 
+		/**
+		 * scores every piece
+		 * 
+		 * @param pieces the ArrayList<Piece> of pieces
+		 */
 		public PointTotal(ArrayList<Piece> pieces) {
-			double worthBefore;
-
 			for (Piece p : pieces) {
-				// save the piece's previous position score
-				worthBefore = p.positionWorth;
+				positionWorths[p.getIndex()] = settings.getPieceControl(p, pieces, BoardAnalyzer.this);
+				add(p);
+			}
+		}
 
-				// update the piece's position score
-				p.positionWorth = settings.getPieceControl(p, pieces, BoardAnalyzer.this);
+		/**
+		 * scores the pieces on the changed squares again, and keeps the earlier
+		 * position scores of the rest
+		 * 
+		 * @param pieces  the ArrayList<Piece> of pieces
+		 * @param before  the PointTotal of the board before the move
+		 * @param changed the bitboard of squares whose pieces are scored again
+		 */
+		public PointTotal(ArrayList<Piece> pieces, PointTotal before, long changed) {
+			double worthBefore;
+			int square;
 
-				if (p.getColor() == friend) {
-					aiMaterial += p.getType().worth;
-					aiPosition += p.positionWorth;
+			for (Piece p : pieces) {
+				square = p.getIndex();
+				if ((changed & 1L << square) != 0L) {
+					worthBefore = before.positionWorths[getSquareBefore(p)];
+					positionWorths[square] = settings.getPieceControl(p, pieces, BoardAnalyzer.this);
+					if (explain) {
+						pieceBetterment.addClarification(positionWorths[square] - worthBefore, p + "",
+								Logger.Difference.MINUTE);
+					}
 				} else {
-					oppMaterial += p.getType().worth;
-					oppPosition += p.positionWorth;
+					positionWorths[square] = before.positionWorths[square];
 				}
-				pieceBetterment.addClarification(p.positionWorth - worthBefore, p + "", Logger.Difference.MINUTE);
+				add(p);
+			}
+		}
+
+		/**
+		 * adds a piece's material and position worth to its player's total
+		 * 
+		 * @param piece the piece being added
+		 */
+		private void add(Piece piece) {
+			if (piece.getColor() == friend) {
+				aiMaterial += piece.getType().worth;
+				aiPosition += positionWorths[piece.getIndex()];
+			} else {
+				oppMaterial += piece.getType().worth;
+				oppPosition += positionWorths[piece.getIndex()];
 			}
 		}
 
@@ -171,19 +328,50 @@ public class BoardAnalyzer {
 		}
 	}
 
+	/**
+	 * determines how far the players are into the game, the same way
+	 * initializeGameState does
+	 * 
+	 * @param position the Position being examined
+	 * @return the GameState of the position
+	 */
+	public static GameState getGameState(Position position) {
+		int whiteNumPieces = getMajorMinorCount(position, Color.WHITE);
+		int blackNumPieces = getMajorMinorCount(position, Color.BLACK);
+
+		if (whiteNumPieces + blackNumPieces >= 12) {
+			return GameState.OPENING;
+		} else if (whiteNumPieces <= 3 || blackNumPieces <= 3) {
+			return GameState.LATEGAME;
+		}
+		return GameState.MIDGAME;
+	}
+
+	/**
+	 * @param position the Position being examined
+	 * @param color    the color of the pieces being counted
+	 * @return the amount of Major and Minor pieces the color has
+	 */
+	private static int getMajorMinorCount(Position position, Color color) {
+		long pawnsAndKing = position.getPieces(color, Type.PAWN) | position.getPieces(color, Type.KING);
+		return Long.bitCount(position.getPieces(color) & ~pawnsAndKing);
+	}
+
 	/**
 	 * initializeDangerLevels determines what the worst danger is
 	 */
 	public void initializeDangerLevels() {
+		dangerInitialized = true;
 		worstDanger = 0.0;
 		double loss;
+		Exchange exchange = new Exchange(attackMap, dangerLogger);
 
-		for (Piece p : futurePieces) {
+		for (Piece p : pieces) {
 			if (p.getColor() != friend) {
 				continue;
 			}
 
-			Exchange exchange = new Exchange(futurePieces, p, dangerLogger);
+			exchange.evaluate(p);
 			loss = exchange.getLoss();
 
 			// see if ai is aware of this loss
@@ -239,18 +427,57 @@ public class BoardAnalyzer {
 		return pieces;
 	}
 
+	/**
+	 * @return the pieces with the move made (only valid until undoMove is called)
+	 */
 	public ArrayList<Piece> getFuturePieces() {
-		return futurePieces;
+		return pieces;
+	}
+
+	/**
+	 * @return the AttackMap of the pieces (with the move made until undoMove is
+	 *         called)
+	 */
+	public AttackMap getAttackMap() {
+		return attackMap;
+	}
+
+	public boolean canCastleStill() {
+		return canCastleStill;
 	}
 
 	public Piece getPieceAfterMoving() {
 		return pieceAfterMoving;
 	}
 
-	public AIMove getMove() {
+	public int getMove() {
 		return move;
 	}
 
+	/**
+	 * @return the piece that moved, the pawn if it promoted (unless it promoted,
+	 *         it stands on the destination until undoMove is called)
+	 */
+	public Piece getMovingPiece() {
+		return movingPiece;
+	}
+
+	public Piece getCapturePiece() {
+		return capturePiece;
+	}
+
+	public Square getFrom() {
+		return Position.getSquare(MoveEncoder.getFrom(move));
+	}
+
+	public Square getDestination() {
+		return Position.getSquare(MoveEncoder.getTo(move));
+	}
+
+	public boolean isCastle() {
+		return MoveEncoder.isCastle(move);
+	}
+
 	public Logger getPieceBetterment() {
 		return futurePointTotal.pieceBetterment;
 	}
@@ -271,7 +498,13 @@ public class BoardAnalyzer {
 		return dangerLogger;
 	}
 
+	/**
+	 * @return the worst danger (has to be called before undoMove)
+	 */
 	public double getWorstDanger() {
+		if (!dangerInitialized) {
+			initializeDangerLevels();
+		}
 		return worstDanger;
 	}
 
@@ -286,4 +519,8 @@ public class BoardAnalyzer {
 	public GameState getGameState() {
 		return gameState;
 	}
+
+	public Random getRandom() {
+		return random;
+	}
 }
@@ -1,147 +1,197 @@
 package ai.analyzer;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import ai.Logger;
-import game.Move;
-import game.Square;
+import game.AttackMap;
+import game.Position;
 import game.helpers.ConsoleColors;
-import game.helpers.Copier;
-import game.helpers.MoveExecuter;
 import pieces.Piece;
 import pieces.Piece.Color;
+import pieces.Piece.Type;
 
 /**
- * 
+ *
  * @author LesbianGoat
- * 
+ *
  *         Exchange is responsible for sensing what pieces can capture given
  *         piece and how many material points would be lost
  *
+ *         - the captures are played out on the attack map's bitboards (a swap
+ *         list), never on the board itself. Each side captures with its least
+ *         valuable piece that can legally take
+ *
+ *         - when a piece takes, the sliding pieces lined up behind it join the
+ *         exchange (x-rays)
+ *
+ *         - one Exchange is made per board and evaluate is called for each
+ *         piece, so nothing is made while exchanges are found
+ *
  */
 public class Exchange {
 
-	private ArrayList<Piece> exchange; // pieces that could die
+	private static final int MAX_EXCHANGE = 32;
+
+	// the order attackers are tried in (the king is worth 0, so it goes first)
+	private static final Type[] BY_WORTH = { Type.KING, Type.PAWN, Type.KNIGHT, Type.BISHOP, Type.ROOK,
+			Type.QUEEN };
+
+	private int[] codes; // piece codes of the pieces that could die (then lastPiece)
+	private int[] squares; // the square each of those pieces started on
+	private int count; // pieces in the exchange, including lastPiece
 	private double loss; // how bad is the danger (0.0 or less)
-	private Piece lastPiece; // last piece in exchange (one that doesn't die)
 
 	private Piece.Color friend;
+	private AttackMap attackMap;
 	private Logger logger;
 
 	/**
-	 * @param pieces the ArrayList of pieces
-	 * @param piece  the piece possibly in danger
-	 * @param logger the danger logger
+	 * @param attackMap the AttackMap of the board
+	 * @param logger    the danger logger
 	 */
-	public Exchange(ArrayList<Piece> pieces, Piece piece, Logger logger) {
-		exchange = new ArrayList<Piece>();
-		friend = piece.getColor();
+	public Exchange(AttackMap attackMap, Logger logger) {
+		codes = new int[MAX_EXCHANGE + 1];
+		squares = new int[MAX_EXCHANGE + 1];
+		this.attackMap = attackMap;
 		this.logger = logger;
+	}
 
-		exchange.add(Copier.copyPiece(piece));
-		testExchange(Copier.copyBoard(pieces), piece.getPosition(), Color.getOppColor(friend));
-		lastPiece = exchange.remove(exchange.size() - 1);
+	/**
+	 * finds the exchange on a piece's square, replacing the last one found
+	 *
+	 * @param piece the piece possibly in danger
+	 */
+	public void evaluate(Piece piece) {
+		int square = piece.getIndex();
+		friend = piece.getColor();
+		loss = 0.0;
 
-		if (!exchange.isEmpty()) {
-			loss = getBestStop();
-			logger.print(ConsoleColors.toColorPiece(lastPiece));
+		codes[0] = Position.getPieceCode(friend, piece.getType());
+		squares[0] = square;
+		count = 1;
+		testExchange(square, Color.getOppColor(friend));
+
+		if (!isEmpty()) {
+			loss = getBestStop(piece);
+			if (logger.isEnabled()) {
+				logger.print(ConsoleColors.toColorPiece(Position.getTypeOf(codes[count - 1]),
+						Position.getColorOf(codes[count - 1])));
+			}
 		}
 	}
 
 	/**
-	 * recursively finds pieces that can take on given square and adds them all to
-	 * the exchange. Pieces are arranged by alternating color, lowest worth to
-	 * highest worth
-	 * 
-	 * @param pieces the ArrayList<Piece> of pieces
+	 * finds pieces that can take on given square and adds them all to the
+	 * exchange. Pieces are arranged by alternating color, lowest worth to highest
+	 * worth
+	 *
+	 * pieces that have taken are only removed from the occupied squares, so
+	 * sliders behind them can see through to the square
+	 *
 	 * @param square the square this exchange is happening on
-	 * @param threat the color of threatening pieces
+	 * @param threat the color of the first threatening pieces
 	 */
-	private void testExchange(ArrayList<Piece> pieces, Square square, Color threat) {
-		ArrayList<Piece> threats = getThreats(pieces, square, threat);
+	private void testExchange(int square, Color threat) {
+		long occupied = attackMap.getOccupied();
+		long attackers;
+		int from;
 
-		if (threats.isEmpty()) {
-			return;
-		}
-
-		Move move = new Move(threats.get(0), square, pieces);
-		exchange.add(Copier.copyPiece(move.getPiece()));
-
-		MoveExecuter.testMove(move, pieces);
+		// kings are never captured
+		while (Position.getTypeOf(codes[count - 1]) != Type.KING && count <= MAX_EXCHANGE) {
+			attackers = attackMap.getAttackers(square, threat, occupied);
+			from = getLeastValuable(attackers, square, threat, occupied);
+			if (from == Position.NO_SQUARE) {
+				return;
+			}
 
-		testExchange(pieces, square, Color.getOppColor(threat));
+			codes[count] = attackMap.getPiece(from);
+			squares[count] = from;
+			count++;
+			occupied ^= 1L << from;
+			threat = Color.getOppColor(threat);
+		}
 	}
 
 	/**
-	 * returns a sorted (by ascending worth) ArrayList<Piece> of pieces of the given
-	 * color that can support given square
-	 * 
-	 * @param pieces  the ArrayList<Piece> of pieces
-	 * @param square  the square pieces are trying to support
-	 * @param threats the color of threatening pieces
-	 * @return an ArrayList<Piece> of threatening pieces
+	 * finds the least valuable attacker that can take without leaving its own
+	 * king in check
+	 *
+	 * @param attackers the bitboard of attacking pieces
+	 * @param square    the square being taken on
+	 * @param threat    the color of the attacking pieces
+	 * @param occupied  the squares that are still occupied
+	 * @return the square of the attacker, Position.NO_SQUARE if none can take
 	 */
-	private ArrayList<Piece> getThreats(ArrayList<Piece> pieces, Square square, Color threat) {
-		ArrayList<Piece> threats = new ArrayList<Piece>();
-		for (Piece p : pieces) {
-			if (p.getColor() == threat && p.canSupport(square, pieces)) {
-				threats.add(p);
+	private int getLeastValuable(long attackers, int square, Color threat, long occupied) {
+		long candidates;
+		int from;
+
+		for (Type type : BY_WORTH) {
+			candidates = attackers & attackMap.getPieces(threat, type);
+			while (candidates != 0L) {
+				from = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				if (isLegal(from, square, threat, occupied)) {
+					return from;
+				}
 			}
 		}
-		sortPiecesByWorth(threats);
-		return threats;
+		return Position.NO_SQUARE;
 	}
 
 	/**
-	 * sorts an ArrayList<Piece> of pieces into ascending order based on worth
-	 * 
-	 * @param pieces the ArrayList<Piece> of pieces
+	 * determines if taking on the square would leave the taker's king attacked
+	 *
+	 * @param from     the square of the taking piece
+	 * @param square   the square being taken on
+	 * @param threat   the color of the taking piece
+	 * @param occupied the squares that are still occupied
+	 * @return true if the king is safe after taking
 	 */
-	private void sortPiecesByWorth(ArrayList<Piece> pieces) {
-		Piece tempPiece;
-
-		for (int i = 0; i + 1 < pieces.size(); i++) {
-			if (pieces.get(i).getType().worth > pieces.get(i + 1).getType().worth) {
-				tempPiece = pieces.get(i);
-				pieces.remove(i);
-				pieces.add(tempPiece);
-				i--;
-			}
-		}
+	private boolean isLegal(int from, int square, Color threat, long occupied) {
+		int king = Position.getTypeOf(attackMap.getPiece(from)) == Type.KING ? square
+				: attackMap.getKingSquare(threat);
+		long checks = attackMap.getAttackers(king, Color.getOppColor(threat), occupied ^ (1L << from));
+
+		// the piece on the square is the one being taken
+		return (checks & ~(1L << square)) == 0L;
 	}
 
 	/**
 	 * getBestStop tests an exchange of pieces, looking for the best time to stop
 	 * exchanging
-	 * 
+	 *
+	 * @param piece the piece immediately in danger
 	 * @return the best outcome in points that the ai can acheive
 	 */
-	private double getBestStop() {
-		Iterator<Piece> iterator = exchange.iterator();
-		Piece capturePiece = iterator.next();
+	private double getBestStop(Piece piece) {
+		int last = count - 1; // lastPiece doesn't die
+		Type type;
 
-		loss = -capturePiece.getType().worth;
-		logger.print(capturePiece + " " + Logger.roundDouble(loss));
+		loss = -piece.getType().worth;
+		if (logger.isEnabled()) {
+			logger.print(piece + " " + Logger.roundDouble(loss));
+		}
 
 		double bestStop = loss; // can only go up from startLoss
 
-		while (iterator.hasNext()) {
-			capturePiece = iterator.next();
-			logger.print(ConsoleColors.toColorPiece(capturePiece));
+		for (int i = 1; i < last; i++) {
+			type = Position.getTypeOf(codes[i]);
+			if (logger.isEnabled()) {
+				logger.print(ConsoleColors.toColorPiece(type, Position.getColorOf(codes[i])));
+			}
 
 			// friendly piece is being captured
-			if (capturePiece.getColor() == friend) {
-				loss -= capturePiece.getType().worth;
-				logger.print(" " + Logger.roundDouble(loss));
+			if (Position.getColorOf(codes[i]) == friend) {
+				loss -= type.worth;
+				printLoss();
 			}
 			// opponent piece is being captured
 			else {
-				loss += capturePiece.getType().worth;
-				logger.print(" " + Logger.roundDouble(loss));
+				loss += type.worth;
+				printLoss();
 
 				// if there are more pieces, don't record best stop (the other player has a
 				// chance to capture back)
-				if (iterator.hasNext()) {
+				if (i + 1 < last) {
 					continue;
 				}
 			}
@@ -156,70 +206,73 @@ public class Exchange {
 		return bestStop;
 	}
 
+	/**
+	 * logs the loss so far (if the danger is being explained)
+	 */
+	private void printLoss() {
+		if (logger.isEnabled()) {
+			logger.print(" " + Logger.roundDouble(loss));
+		}
+	}
+
 	/**
 	 * returns the material worth of the piece immediately in danger
-	 * 
+	 *
 	 * @return the material worth of the first piece in the exchange
 	 */
 	public double getFirstLoss() {
-		if (!exchange.isEmpty()) {
-			return exchange.get(0).getType().worth;
+		if (!isEmpty()) {
+			return Position.getTypeOf(codes[0]).worth;
 		}
 		return 0.0;
 	}
 
 	/**
 	 * determines if exchange contains given kind of piece. includes lastPiece
-	 * 
+	 *
 	 * @param type  the type of piece being looked for
 	 * @param color the color piece being looked for
 	 * @return true if the type of piece is a part of the exchange, false otherwise
 	 */
 	public boolean contains(Piece.Type type, Piece.Color color) {
-		for (Piece p : exchange) {
-			if (p.getType() == type && p.getColor() == color) {
+		int code = Position.getPieceCode(color, type);
+		for (int i = 0; i < count; i++) {
+			if (codes[i] == code) {
 				return true;
 			}
 		}
-		if (lastPiece.getType() == type && lastPiece.getColor() == color) {
-			return true;
-		}
 		return false;
 	}
 
 	/**
-	 * determines if exchange contains given piece. includes lastPiece
-	 * 
+	 * determines if exchange contains given piece (on the square it started on).
+	 * includes lastPiece
+	 *
 	 * @param piece the piece being examined
 	 * @return true if the piece is a part of the exchange, false otherwise
 	 */
 	public boolean contains(Piece piece) {
-		for (Piece p : exchange) {
-			if (piece.equals(p)) {
+		int code = Position.getPieceCode(piece.getColor(), piece.getType());
+		int square = piece.getIndex();
+		for (int i = 0; i < count; i++) {
+			if (codes[i] == code && squares[i] == square) {
 				return true;
 			}
 		}
-		if (piece.equals(lastPiece)) {
-			return true;
-		}
 		return false;
 	}
 
 	/**
-	 * determines if the exchange is empty or not
-	 * 
-	 * @return exchange.isEmpty()
+	 * determines if the exchange is empty or not (nothing can take the piece)
+	 *
+	 * @return true if the exchange is empty
 	 */
 	public boolean isEmpty() {
-		return exchange.isEmpty();
+		return count <= 1;
 	}
 
 	// getters and setters
 	public double getLoss() {
 		return loss;
 	}
-
-	public ArrayList<Piece> getExchange() {
-		return exchange;
-	}
 }
@@ -1,12 +1,18 @@
 package ai.analyzer;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import ai.AIMove;
+import ai.AIMove.Component;
 import ai.Logger;
 import ai.difficulty.Difficulty;
-import game.Move;
+import game.KeyHistory;
+import game.Position;
+import game.helpers.Copier;
+import game.helpers.MoveEncoder;
 import pieces.Piece;
+import pieces.Piece.Color;
 
 /**
  * 
@@ -22,63 +28,254 @@ import pieces.Piece;
  *
  *         4: award piece control
  * 
- *         5: punish putting pieces in danger
+ *         5: punish putting pieces in danger (unless the AI looks ahead, since
+ *         the search sees these itself)
  * 
  *         6: award or punish ending the game
  * 
+ *         - moves can be analyzed in parallel. Each task tests its moves on its
+ *         own copy of the board, and each move gets its own Random from the
+ *         Difficulty, so the scores are the same as analyzing them one by one
+ * 
+ *         - the board before the moves is analyzed once, then shared by every
+ *         move's analysis
+ * 
+ *         - reasoning is only logged for explained AIMoves. explainMove analyzes
+ *         a move again, the same way, once its reasoning is wanted
+ * 
+ *         - the analysis stops early once its deadline passes or stop is called,
+ *         leaving the rest of the moves unanalyzed (the first move is always
+ *         analyzed)
+ * 
  */
 public class MoveAnalyzer {
 
+	// the fewest moves a parallel task will split up
+	private static final int SPLIT_SIZE = 4;
+
 	private Difficulty settings;
+	private boolean parallel;
+	private long deadline; // when the analysis has to stop, 0 for no limit
+	private volatile boolean stopped;
 
 	public MoveAnalyzer(Difficulty settings) {
 		this.settings = settings;
+		parallel = true;
 	}
 
 	/**
 	 * analyzes all given moves and assigns a score to each one
 	 * 
-	 * @param pieces  the ArrayList<Piece> of pieces
-	 * @param moves   the ArrayList<Piece> of possible AIMoves
-	 * @param history the LinkedList of past moves
+	 * @param pieces        the ArrayList<Piece> of pieces
+	 * @param moves         the ArrayList<Piece> of possible AIMoves
+	 * @param halfMoveClock the amount of moves since the last pawn move or capture
+	 * @param keyHistory    the KeyHistory of the positions before each past move
+	 *                      (including this one)
 	 */
-	public void analyzeMoves(ArrayList<Piece> pieces, ArrayList<AIMove> moves, LinkedList<Move> history) {
-		double capturePoints;
+	public void analyzeMoves(ArrayList<Piece> pieces, ArrayList<AIMove> moves, int halfMoveClock,
+			KeyHistory keyHistory) {
+		if (moves.isEmpty()) {
+			return;
+		}
 
-		BoardAnalyzer boardAnalysis;
+		// each move's random numbers come from the position and the move's index
+		long key = keyHistory.get(keyHistory.size() - 1);
+		Color friend = Position.getColorOf(MoveEncoder.getPiece(moves.get(0).getMove()));
+		BoardAnalyzer current = new BoardAnalyzer(pieces, halfMoveClock, friend, settings);
 
-		for (AIMove m : moves) {
-			// get an review of the board, and also review the move
-			boardAnalysis = new BoardAnalyzer(pieces, history, m, settings);
+		if (parallel && moves.size() > SPLIT_SIZE) {
+			ForkJoinPool.commonPool()
+					.invoke(new AnalyzeTask(current, pieces, moves, keyHistory, key, 0, moves.size()));
+		} else {
+			for (int i = 0; i < moves.size(); i++) {
+				if (i > 0 && isOutOfTime()) {
+					break;
+				}
+				analyzeMove(current, pieces, moves.get(i), keyHistory, key + i);
+			}
+		}
+	}
 
-			// 1. offset all scores
-			m.offSetScore(settings.getOffSet());
+	/**
+	 * analyzes a move again with its reasoning logged. The move gets the same
+	 * score it got from analyzeMoves
+	 * 
+	 * @param pieces        the ArrayList<Piece> of pieces
+	 * @param move          the packed move being explained
+	 * @param index         the move's index in the moves given to analyzeMoves
+	 * @param halfMoveClock the amount of moves since the last pawn move or capture
+	 * @param keyHistory    the KeyHistory of the positions before each past move
+	 *                      (including this one)
+	 * @return the explained AIMove
+	 */
+	public AIMove explainMove(ArrayList<Piece> pieces, int move, int index, int halfMoveClock,
+			KeyHistory keyHistory) {
+		AIMove m = new AIMove(move, true);
+		long key = keyHistory.get(keyHistory.size() - 1);
+		BoardAnalyzer current = new BoardAnalyzer(pieces, halfMoveClock,
+				Position.getColorOf(MoveEncoder.getPiece(move)), settings);
 
-			// 2. award or punish hesitation
-			m.labelReasoning("hesitation");
-			m.addToScore(settings.getPieceHesitation(boardAnalysis), "--Total Hesitation--", Logger.Difference.MINUTE,
-					boardAnalysis.getHesitationLogger());
+		analyzeMove(current, pieces, m, keyHistory, key + index);
+		return m;
+	}
 
-			// 3. award captures
-			m.labelReasoning("capture");
-			capturePoints = settings.getCapturePoints(boardAnalysis);
-			m.addToScore(capturePoints, "Capturing the " + m.getCapturePiece(), Logger.Difference.MINUTE,
-					boardAnalysis.getCaptureLogger());
+	/**
+	 * analyzes a single move and assigns it a score. The board is tested on and put
+	 * back, so only one move can be analyzed on the same board at a time
+	 * 
+	 * @param current    the BoardAnalyzer of the board before the move
+	 * @param pieces     the ArrayList<Piece> of pieces
+	 * @param m          the AIMove being analyzed
+	 * @param keyHistory the KeyHistory of the positions before each past move
+	 *                   (including this one)
+	 * @param key        the number this move's Random is made from
+	 */
+	private void analyzeMove(BoardAnalyzer current, ArrayList<Piece> pieces, AIMove m, KeyHistory keyHistory,
+			long key) {
+		double capturePoints;
+
+		// get an review of the board, and also review the move
+		BoardAnalyzer boardAnalysis = new BoardAnalyzer(current, pieces, keyHistory, m.getMove(),
+				settings.getRandom(key), m.isExplained());
+
+		// 1. offset all scores
+		m.offSetScore(settings.getOffSet(boardAnalysis));
 
-			// 4. award piece control
-			m.labelReasoning("piece betterment");
-			m.addToScore(boardAnalysis.getMoveScore() - capturePoints, "--Total piece betterment--",
-					Logger.Difference.MINUTE, boardAnalysis.getPieceBetterment());
+		// 2. award or punish hesitation
+		m.labelReasoning("hesitation");
+		m.addToScore(Component.HESITATION, settings.getPieceHesitation(boardAnalysis), "--Total Hesitation--",
+				Logger.Difference.MINUTE, boardAnalysis.getHesitationLogger());
 
-			// 5. punish putting pieces in danger
+		// 3. award captures
+		m.labelReasoning("capture");
+		capturePoints = settings.getCapturePoints(boardAnalysis);
+		m.addToScore(Component.CAPTURE, capturePoints,
+				m.isExplained() ? "Capturing the " + boardAnalysis.getCapturePiece() : null, Logger.Difference.MINUTE,
+				boardAnalysis.getCaptureLogger());
+
+		// 4. award piece control
+		m.labelReasoning("piece betterment");
+		m.addToScore(Component.PIECE_BETTERMENT, boardAnalysis.getMoveScore() - capturePoints,
+				"--Total piece betterment--", Logger.Difference.MINUTE, boardAnalysis.getPieceBetterment());
+
+		// 5. punish putting pieces in danger
+		if (settings.getSearchDepth() == 1) {
 			m.labelReasoning("danger levels");
-			m.addToScore(boardAnalysis.getWorstDanger(), "--Worst danger--", Logger.Difference.ANY,
-					boardAnalysis.getDangerLogger());
+			m.addToScore(Component.WORST_DANGER, boardAnalysis.getWorstDanger(), "--Worst danger--",
+					Logger.Difference.ANY, boardAnalysis.getDangerLogger());
+		}
+
+		// 6. award or punish for ending the game
+		m.labelReasoning("end game");
+		m.addToScore(Component.END_GAME, settings.getEndGameDesire(boardAnalysis), "--End Game--",
+				Logger.Difference.MINUTE, boardAnalysis.getEndGameLogger());
+
+		// put the board back the way it was
+		boardAnalysis.undoMove();
+		m.setAnalyzed(true);
+	}
+
+	/**
+	 * @return true if the analysis has to stop, false otherwise
+	 */
+	private boolean isOutOfTime() {
+		return stopped || (deadline > 0 && System.currentTimeMillis() >= deadline);
+	}
+
+	/**
+	 * stops the analysis as soon as possible (can be called from another thread).
+	 * The analysis stays stopped until clearStop is called
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * lets the next analysis run again after stop was called
+	 */
+	public void clearStop() {
+		stopped = false;
+	}
+
+	// getters and setters
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @param parallel true to analyze moves on every core, false to analyze them
+	 *                 one at a time
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	public long getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * @param deadline the time the analysis has to stop by (like
+	 *                 System.currentTimeMillis), 0 for no limit
+	 */
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * AnalyzeTask analyzes a range of the moves, splitting it in half until it is
+	 * small enough to analyze on one thread
+	 */
+	private class AnalyzeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private BoardAnalyzer current; // only read during analysis, so it can be shared
+		private ArrayList<Piece> pieces;
+		private ArrayList<AIMove> moves;
+		private KeyHistory keyHistory; // only read during analysis, so it can be shared
+		private long key;
+		private int start;
+		private int end;
+
+		/**
+		 * @param current    the BoardAnalyzer of the board before the moves
+		 * @param pieces     the ArrayList<Piece> of pieces (never changed)
+		 * @param moves      every AIMove being analyzed
+		 * @param keyHistory the KeyHistory of the positions before each past move
+		 * @param key        the number the move Randoms are made from
+		 * @param start      the index of the first move in the range
+		 * @param end        the index after the last move in the range
+		 */
+		private AnalyzeTask(BoardAnalyzer current, ArrayList<Piece> pieces, ArrayList<AIMove> moves,
+				KeyHistory keyHistory, long key, int start, int end) {
+			this.current = current;
+			this.pieces = pieces;
+			this.moves = moves;
+			this.keyHistory = keyHistory;
+			this.key = key;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > SPLIT_SIZE) {
+				int middle = (start + end) / 2;
+				invokeAll(new AnalyzeTask(current, pieces, moves, keyHistory, key, start, middle),
+						new AnalyzeTask(current, pieces, moves, keyHistory, key, middle, end));
+				return;
+			}
+
+			// moves are tested on the board, so each task needs its own
+			ArrayList<Piece> board = Copier.copyBoard(pieces);
 
-			// 6. award or punish for ending the game
-			m.labelReasoning("end game");
-			m.addToScore(settings.getEndGameDesire(boardAnalysis), "--End Game--", Logger.Difference.MINUTE,
-					boardAnalysis.getEndGameLogger());
+			for (int i = start; i < end; i++) {
+				if (i > 0 && isOutOfTime()) {
+					return;
+				}
+				analyzeMove(current, board, moves.get(i), keyHistory, key + i);
+			}
 		}
 	}
 }
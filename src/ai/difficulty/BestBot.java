@@ -1,48 +1,50 @@
 package ai.difficulty;
 
 import java.util.ArrayList;
-import ai.AIMove;
 import ai.Logger;
 import ai.analyzer.BoardAnalyzer;
 import ai.analyzer.BoardAnalyzer.GameState;
 import ai.analyzer.Exchange;
+import game.Position;
 import game.Square;
 import game.EndGameCheck.Ending;
 import pieces.Pawn;
 import pieces.Piece;
+import pieces.Piece.Color;
 
 public class BestBot extends Difficulty {
 
 	// offset by 0.05 points
 	@Override
-	public double getOffSet() {
-		return super.getOffSet(0.05);
+	public double getOffSet(BoardAnalyzer boardAnalyzer) {
+		return super.getOffSet(0.05, boardAnalyzer.getRandom());
 	}
 
 	@Override
 	public double getPieceHesitation(BoardAnalyzer boardAnalyzer) {
 		double score = 0.0;
 
-		AIMove move = boardAnalyzer.getMove();
-		Piece piece = move.getPiece();
+		Piece piece = boardAnalyzer.getMovingPiece();
+		Square from = boardAnalyzer.getFrom();
+		Square destination = boardAnalyzer.getDestination();
 		Logger logger = boardAnalyzer.getHesitationLogger();
-		boolean canCastleStill = Inquiry.canCastleStill(boardAnalyzer.getPieces(), piece.getColor());
-		boolean isCapturing = move.getCapturePiece() != null;
+		boolean canCastleStill = boardAnalyzer.canCastleStill();
+		boolean isCapturing = boardAnalyzer.getCapturePiece() != null;
 		GameState gameState = boardAnalyzer.getGameState();
 
 		switch (piece.getType()) {
 		case KING:
 			// king hesitates to move before castling
-			if (canCastleStill && move.getRookJump() == null && gameState != GameState.LATEGAME) {
+			if (canCastleStill && !boardAnalyzer.isCastle() && gameState != GameState.LATEGAME) {
 				score += logger.addClarification(-3.0, "King waiting for possible castle", Logger.Difference.ANY);
 			}
 			// king hesitates to move off the first rank before the end game
-			if (!isCapturing && !move.getDestination().isFirstRank(piece.getColor())
+			if (!isCapturing && !destination.isFirstRank(piece.getColor())
 					&& gameState != GameState.LATEGAME) {
 				score += logger.addClarification(-2.0, "King staying on first rank", Logger.Difference.ANY);
 			}
 			// king wants to castle
-			if (move.getRookJump() != null) {
+			if (boardAnalyzer.isCastle()) {
 				score += logger.addClarification(1.0, "King wants to castle", Logger.Difference.ANY);
 			}
 			break;
@@ -65,21 +67,21 @@ public class BestBot extends Difficulty {
 				score += logger.addClarification(-3.0, "Rook waiting for possible castle", Logger.Difference.ANY);
 			}
 			// rook hesitates to move if it isn't to an edge rank
-			if (!isCapturing && gameState != GameState.LATEGAME && !move.getDestination().isEdgeRank()) {
+			if (!isCapturing && gameState != GameState.LATEGAME && !destination.isEdgeRank()) {
 				score += logger.addClarification(-2.0, "Rook staying on edge ranks", Logger.Difference.ANY);
 			}
 			break;
 
 		case PAWN:
 			// pawn hesitates to jump 2 on edges
-			int x = piece.getPosition().getX();
-			int y = piece.getPosition().getY();
-			int destY = move.getDestination().getY();
+			int x = from.getX();
+			int y = from.getY();
+			int destY = destination.getY();
 			if (Math.abs(y - destY) == 2 && (x == 1 || x == 8) && gameState != GameState.LATEGAME) {
 				score += logger.addClarification(-0.25, "Pawn staying defensive", Logger.Difference.ANY);
 			}
 			// pawn is passed pawn
-			if (((Pawn) piece).isPassedPawn(boardAnalyzer.getFuturePieces())) {
+			if (((Pawn) piece).isPassedPawn(from, boardAnalyzer.getFuturePieces())) {
 				score += logger.addClarification(0.50, "Pawn is passed pawn", Logger.Difference.ANY);
 			}
 			break;
@@ -92,7 +94,7 @@ public class BestBot extends Difficulty {
 	@Override
 	public double getCapturePoints(BoardAnalyzer boardAnalyzer) {
 		// Logger logger = boardAnalyzer.getCaptureLogger();
-		Piece capturePiece = boardAnalyzer.getMove().getCapturePiece();
+		Piece capturePiece = boardAnalyzer.getCapturePiece();
 		double score = 0.0;
 
 		// material value
@@ -107,7 +109,7 @@ public class BestBot extends Difficulty {
 	public double getPieceControl(Piece piece, ArrayList<Piece> pieces, BoardAnalyzer boardAnalyzer) {
 		double score = 0.0;
 		double centerValue;
-		ArrayList<Square> controlledSquares = SquareValue.getControlledSquares(piece, pieces);
+		ArrayList<Square> controlledSquares = SquareValue.getControlledSquares(piece, boardAnalyzer.getAttackMap());
 
 		// adding worth for controlling center squares
 		for (Square s : controlledSquares) {
@@ -121,7 +123,8 @@ public class BestBot extends Difficulty {
 			double checkValue;
 
 			for (Square s : controlledSquares) {
-				checkValue = SquareValue.getCheckValue(s, boardAnalyzer.getFriendlyColor(), pieces); // 0 - 2
+				checkValue = SquareValue.getCheckValue(s, boardAnalyzer.getFriendlyColor(),
+						boardAnalyzer.getAttackMap()); // 0 - 2
 				checkValue /= 20.0; // 0.00, 0.05, 0.1
 				score += checkValue;
 			}
@@ -130,6 +133,28 @@ public class BestBot extends Difficulty {
 		return score;
 	}
 
+	@Override
+	public double getPieceControl(Position position, int square, GameState gameState, Color friend) {
+		double score = 0.0;
+		long controlledSquares = SquareValue.getControlledSquares(position, square);
+		int s;
+
+		while (controlledSquares != 0L) {
+			s = Long.numberOfTrailingZeros(controlledSquares);
+			controlledSquares &= controlledSquares - 1;
+
+			// adding worth for controlling center squares
+			score += SquareValue.getCenterValue(s) / 100.0; // 0.00 - 0.06
+
+			// adding worth for check / blocking king's options during end game
+			if (gameState == GameState.LATEGAME) {
+				score += SquareValue.getCheckValue(s, friend, position) / 20.0; // 0.00, 0.05, 0.1
+			}
+		}
+
+		return score;
+	}
+
 	@Override
 	public double getDangerAwareness(BoardAnalyzer boardAnalyzer, Exchange exchange) {
 		return exchange.getLoss();
@@ -156,4 +181,10 @@ public class BestBot extends Difficulty {
 		return score;
 	}
 
+	// looks 4 moves ahead
+	@Override
+	public int getSearchDepth() {
+		return 4;
+	}
+
 }
@@ -3,8 +3,11 @@ package ai.difficulty;
 import java.util.ArrayList;
 import java.util.Random;
 import ai.analyzer.BoardAnalyzer;
+import ai.analyzer.BoardAnalyzer.GameState;
 import ai.analyzer.Exchange;
+import game.Position;
 import pieces.Piece;
+import pieces.Piece.Color;
 
 public abstract class Difficulty {
 
@@ -19,25 +22,71 @@ public abstract class Difficulty {
 		}
 	}
 
-	protected static Random random = new Random();
+	// every random number the AI uses comes from this seed
+	private long seed = new Random().nextLong();
 
 	/**
 	 * HELPER
 	 * METHODS------------------------------------------------------------------------------------
 	 */
 
+	/**
+	 * getRandom gives each analyzed move its own Random, so moves can be analyzed
+	 * in any order (or at the same time) and still get the same numbers
+	 * 
+	 * @param key a number unique to the move (i.e. the position's key plus the
+	 *            move's index)
+	 * @return a Random made from the seed and the key
+	 */
+	public Random getRandom(long key) {
+		// mix the bits, since Random only uses the low 48 bits of its seed
+		long mixed = seed ^ key;
+		mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+		mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+		return new Random(mixed ^ (mixed >>> 31));
+	}
+
 	/**
 	 * getOffSet returns a double between negative amount and positive amount
 	 * 
 	 * @param amount the amount away from 0.0 the offSet can be
+	 * @param random the Random the number comes from
 	 * @return a number between -amount and +amount
 	 */
-	protected double getOffSet(double amount) { // 2.52
+	protected double getOffSet(double amount, Random random) { // 2.52
 		int bound = (int) (amount * 100); // 252
 		bound = random.nextInt(bound * 2) - bound; // -252 to 252
 		return bound / 100.0; // -2.52 to 2.52
 	}
 
+	/**
+	 * evaluate scores a position for the search. Like BoardAnalyzer's PointTotal,
+	 * it adds up the material and piece control of each player
+	 * 
+	 * @param position the Position being scored
+	 * @param ai       the color of the AI (piece control is worked out for the AI,
+	 *                 the same way BoardAnalyzer does, whoever's turn it is)
+	 * @return the material, position difference for the player whose turn it is
+	 *         (positive number = better pieces)
+	 */
+	public double evaluate(Position position, Color ai) {
+		GameState gameState = BoardAnalyzer.getGameState(position);
+		Color friend = position.getSideToMove();
+		long pieces = position.getOccupied();
+		double score = 0.0;
+		double worth;
+		int square;
+
+		while (pieces != 0L) {
+			square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+
+			worth = position.getType(square).worth + getPieceControl(position, square, gameState, ai);
+			score += position.getColor(square) == friend ? worth : -worth;
+		}
+		return score;
+	}
+
 	/**
 	 * ABSTRACT
 	 * METHODS-----------------------------------------------------------------------------------
@@ -48,9 +97,10 @@ public abstract class Difficulty {
 	 * 
 	 * - Allows the moves to be semi-random and different each game
 	 * 
+	 * @param boardAnalyzer the current analysis of the game
 	 * @return a small, random double (usually between -1.00 to 1.00)
 	 */
-	public abstract double getOffSet();
+	public abstract double getOffSet(BoardAnalyzer boardAnalyzer);
 
 	/**
 	 * getPieceHesitation gives or subtracts points based on how ready the piece is
@@ -95,6 +145,19 @@ public abstract class Difficulty {
 	 */
 	public abstract double getPieceControl(Piece piece, ArrayList<Piece> pieces, BoardAnalyzer boardAnalyzer);
 
+	/**
+	 * getPieceControl does the same as above for a piece in a Position, so the
+	 * search can score positions without an ArrayList<Piece>. It has to give the
+	 * same score as above, since the search's scores are added to the analysis'
+	 * 
+	 * @param position  the Position being scored
+	 * @param square    the index of the piece's square
+	 * @param gameState how far the players are into the game
+	 * @param friend    the color of the AI (BoardAnalyzer's friendly color)
+	 * @return a positive score representing how much control the piece has
+	 */
+	public abstract double getPieceControl(Position position, int square, GameState gameState, Color friend);
+
 	/**
 	 * getDangerAwareness subtracts points for putting pieces in danger. Deals
 	 * with...
@@ -124,4 +187,25 @@ public abstract class Difficulty {
 	 */
 	public abstract double getEndGameDesire(BoardAnalyzer boardAnalyzer);
 
+	/**
+	 * getSearchDepth returns how many moves (for both players) the AI looks ahead.
+	 * A depth of 1 only looks at the AI's own moves
+	 * 
+	 * @return the search depth, 1 or more
+	 */
+	public abstract int getSearchDepth();
+
+	// getters and setters
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed the seed for the AI's random numbers (the same seed makes the
+	 *             same moves in the same positions)
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
 }
@@ -1,52 +1,54 @@
 package ai.difficulty;
 
 import java.util.ArrayList;
+import java.util.Random;
 
-import ai.AIMove;
 import ai.Logger;
 import ai.analyzer.BoardAnalyzer;
 import ai.analyzer.BoardAnalyzer.GameState;
 import ai.analyzer.Exchange;
+import game.Position;
 import game.Square;
 import game.helpers.ConsoleColors;
 import game.EndGameCheck.Ending;
 import pieces.Pawn;
 import pieces.Piece;
+import pieces.Piece.Color;
 
 public class NoobBot extends Difficulty {
 
 	// offset by 0.50 points
 	@Override
-	public double getOffSet() {
-		return super.getOffSet(0.50);
+	public double getOffSet(BoardAnalyzer boardAnalyzer) {
+		return super.getOffSet(0.50, boardAnalyzer.getRandom());
 	}
 
 	@Override
 	public double getPieceHesitation(BoardAnalyzer boardAnalyzer) {
 		double score = 0.0;
 
-		AIMove move = boardAnalyzer.getMove();
-		Piece piece = move.getPiece();
+		Piece piece = boardAnalyzer.getMovingPiece();
+		Square from = boardAnalyzer.getFrom();
 		Logger logger = boardAnalyzer.getHesitationLogger();
 
 		switch (piece.getType()) {
 		case KING:
 			// king hesitates to castle
-			if (move.getRookJump() != null) {
+			if (boardAnalyzer.isCastle()) {
 				score += logger.addClarification(-0.25, "King doesn't know how to castle", Logger.Difference.ANY);
 			}
 			break;
 
 		case PAWN:
 			// pawn on edges try to get rook free
-			int x = piece.getPosition().getX();
-			int y = piece.getPosition().getY();
-			int destY = move.getDestination().getY();
+			int x = from.getX();
+			int y = from.getY();
+			int destY = boardAnalyzer.getDestination().getY();
 			if (Math.abs(y - destY) == 2 && (x == 1 || x == 8)) {
 				score += logger.addClarification(0.25, "Pawn makes way for rook", Logger.Difference.ANY);
 			}
 			// pawn is passed pawn
-			if (((Pawn) piece).isPassedPawn(boardAnalyzer.getFuturePieces())) {
+			if (((Pawn) piece).isPassedPawn(from, boardAnalyzer.getFuturePieces())) {
 				score += logger.addClarification(0.10, "Pawn is passed pawn", Logger.Difference.ANY);
 			}
 			break;
@@ -59,7 +61,7 @@ public class NoobBot extends Difficulty {
 	@Override
 	public double getCapturePoints(BoardAnalyzer boardAnalyzer) {
 		// Logger logger = boardAnalyzer.getCaptureLogger();
-		Piece capturePiece = boardAnalyzer.getMove().getCapturePiece();
+		Piece capturePiece = boardAnalyzer.getCapturePiece();
 		double score = 0.0;
 
 		// material value
@@ -89,10 +91,12 @@ public class NoobBot extends Difficulty {
 
 		case PAWN:
 			multiplier = 1.3;
+			break;
+
 		default:
 		}
 
-		ArrayList<Square> controlledSquares = SquareValue.getControlledSquares(piece, pieces);
+		ArrayList<Square> controlledSquares = SquareValue.getControlledSquares(piece, boardAnalyzer.getAttackMap());
 
 		// adding worth for controlling offensive squares
 		for (Square s : controlledSquares) {
@@ -106,7 +110,8 @@ public class NoobBot extends Difficulty {
 			double checkValue;
 
 			for (Square s : controlledSquares) {
-				checkValue = SquareValue.getCheckValue(s, boardAnalyzer.getFriendlyColor(), pieces); // 0 - 2
+				checkValue = SquareValue.getCheckValue(s, boardAnalyzer.getFriendlyColor(),
+						boardAnalyzer.getAttackMap()); // 0 - 2
 				checkValue /= 50.0; // 0.00, 0.02, 0.04
 				score += checkValue;
 			}
@@ -115,9 +120,51 @@ public class NoobBot extends Difficulty {
 		return score;
 	}
 
+	@Override
+	public double getPieceControl(Position position, int square, GameState gameState, Color friend) {
+		double score = 0.0;
+		Color color = position.getColor(square);
+		long controlledSquares = SquareValue.getControlledSquares(position, square);
+		int s;
+
+		// Queen, Rook, and Pawn get greater desire for control
+		double multiplier = 1.0;
+		switch (position.getType(square)) {
+		case QUEEN:
+			multiplier = 2;
+			break;
+
+		case ROOK:
+			multiplier = 2.7;
+			break;
+
+		case PAWN:
+			multiplier = 1.3;
+			break;
+
+		default:
+		}
+
+		while (controlledSquares != 0L) {
+			s = Long.numberOfTrailingZeros(controlledSquares);
+			controlledSquares &= controlledSquares - 1;
+
+			// adding worth for controlling offensive squares
+			score += SquareValue.getOffensiveValue(s, color) / 100.0 * multiplier; // 0.00 - 0.07
+
+			// adding worth for check / blocking king's options during end game
+			if (gameState == GameState.LATEGAME) {
+				score += SquareValue.getCheckValue(s, friend, position) / 50.0; // 0.00, 0.02, 0.04
+			}
+		}
+
+		return score;
+	}
+
 	@Override
 	public double getDangerAwareness(BoardAnalyzer boardAnalyzer, Exchange exchange) {
 		Logger logger = boardAnalyzer.getDangerLogger();
+		Random random = boardAnalyzer.getRandom();
 		int awareness = random.nextInt(99); // 0 - 99
 		boolean realDanger = exchange.getLoss() < 0.0;
 
@@ -172,4 +219,10 @@ public class NoobBot extends Difficulty {
 		return score;
 	}
 
+	// doesn't look past its own move
+	@Override
+	public int getSearchDepth() {
+		return 1;
+	}
+
 }
@@ -2,29 +2,44 @@ package ai.difficulty;
 
 import java.util.ArrayList;
 
+import game.AttackMap;
+import game.Position;
 import game.Square;
-import game.helpers.Finder;
+import game.helpers.Bitboards;
+import game.helpers.MoveGenerator;
 import pieces.Piece;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
 
 public interface SquareValue {
 
+	public static final long FILE_A = 0x0101010101010101L; // the first column
+
 	/**
-	 * returns an ArrayList<Piece> of squares that the piece can reach
+	 * returns an ArrayList<Piece> of squares that the piece can reach, column by
+	 * column
 	 * 
-	 * @param pieces the ArrayList<Piece> of pieces
+	 * @param piece     the piece in question
+	 * @param attackMap the AttackMap of the board
 	 * @return the ArrayList<Piece> of all squares the piece can reach
 	 */
-	public static ArrayList<Square> getControlledSquares(Piece piece, ArrayList<Piece> pieces) {
+	public static ArrayList<Square> getControlledSquares(Piece piece, AttackMap attackMap) {
 		ArrayList<Square> controlledSquares = new ArrayList<Square>();
-		Square currSquare = new Square();
+		long controlled = attackMap.getAttacks(piece.getIndex());
+		long column;
+		int s;
 
-		for (int c = 1; c < 9; c++) {
-			for (int r = 1; r < 9; r++) {
-				currSquare.setPosition(c, r);
+		// bishops and queens see the square they stand on
+		if (piece.getType() == Type.BISHOP || piece.getType() == Type.QUEEN) {
+			controlled |= 1L << piece.getIndex();
+		}
 
-				if (piece.canSee(currSquare, pieces)) {
-					controlledSquares.add(new Square(c, r));
-				}
+		for (int c = 0; c < 8; c++) {
+			column = controlled & (FILE_A << c);
+			while (column != 0L) {
+				s = Long.numberOfTrailingZeros(column);
+				column &= column - 1;
+				controlledSquares.add(Position.getSquare(s));
 			}
 		}
 		return controlledSquares;
@@ -56,32 +71,96 @@ public interface SquareValue {
 	 * returns a value 0 through 2 (2 is the opponent's king's square, 1 is a
 	 * possible escape square for that king, 0 otherwise)
 	 * 
-	 * @param square the square in question
-	 * @param friend the color of the AI
-	 * @param pieces the ArrayList of pieces
+	 * @param square    the square in question
+	 * @param friend    the color of the AI
+	 * @param attackMap the AttackMap of the board
 	 * @return an int value 0 through 2
 	 */
-	public static int getCheckValue(Square square, Piece.Color friend, ArrayList<Piece> pieces) {
-		Piece oppKing = null;
-		// get opponent's king
-		for (Piece p : pieces) {
-			if (p.getType() == Piece.Type.KING && p.getColor() != friend) {
-				oppKing = p;
-				break;
-			}
+	public static int getCheckValue(Square square, Piece.Color friend, AttackMap attackMap) {
+		int oppKing = attackMap.getKingSquare(Color.getOppColor(friend));
+		int s = Position.getIndex(square);
+
+		// square is king's square
+		if (oppKing == s) {
+			return 2;
+		}
+
+		// square is one of the king's escape squares
+		if ((Bitboards.KING_ATTACKS[oppKing] & ~attackMap.getOccupied() & (1L << s)) != 0L) {
+			return 1;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * POSITION
+	 * VERSIONS-----------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * returns the squares that the piece on the given square can see, as a
+	 * bitboard
+	 * 
+	 * @param position the Position being examined
+	 * @param square   the index of the piece's square
+	 * @return the bitboard of all squares the piece can reach
+	 */
+	public static long getControlledSquares(Position position, int square) {
+		Type type = position.getType(square);
+		if (type == Type.PAWN) {
+			return Bitboards.PAWN_ATTACKS[position.getColor(square).ordinal()][square];
+		}
+
+		// bishops and queens see the square they stand on
+		if (type == Type.BISHOP || type == Type.QUEEN) {
+			return MoveGenerator.getAttacks(type, square, position.getOccupied()) | 1L << square;
 		}
+		return MoveGenerator.getAttacks(type, square, position.getOccupied());
+	}
+
+	/**
+	 * returns a value 0 through 6 (larger number = closer to center)
+	 * 
+	 * @param square the index of the square in question
+	 * @return an int value 0 through 6
+	 */
+	public static int getCenterValue(int square) {
+		double columnCenter = (Math.abs(Position.getX(square) - 4.5));
+		double rowCenter = (Math.abs(Position.getY(square) - 4.5));
+		return (int) (Math.abs(columnCenter + rowCenter - 7));
+	}
+
+	/**
+	 * returns a value 0 through 7 (larger number = closer to back rank)
+	 * 
+	 * @param square the index of the square in question
+	 * @param friend the color of the piece
+	 * @return an int value 0 through 7
+	 */
+	public static int getOffensiveValue(int square, Color friend) {
+		return friend == Color.WHITE ? Position.getY(square) - 1 : Math.abs(Position.getY(square) - 8);
+	}
+
+	/**
+	 * returns a value 0 through 2 (2 is the opponent's king's square, 1 is a
+	 * possible escape square for that king, 0 otherwise)
+	 * 
+	 * @param square   the index of the square in question
+	 * @param friend   the color of the AI
+	 * @param position the Position being examined
+	 * @return an int value 0 through 2
+	 */
+	public static int getCheckValue(int square, Color friend, Position position) {
+		int oppKing = position.getKingIndex(Color.getOppColor(friend));
 
 		// square is king's square
-		if (oppKing.getPosition().equals(square)) {
+		if (oppKing == square) {
 			return 2;
 		}
 
 		// square is one of the king's escape squares
-		int kingX = oppKing.getPosition().getX();
-		int kingY = oppKing.getPosition().getY();
-		int x = square.getX();
-		int y = square.getY();
-		if (Math.abs(x - kingX) <= 1 && Math.abs(y - kingY) <= 1 && Finder.getPieceOnSquare(square, pieces) == null) {
+		if ((Bitboards.KING_ATTACKS[oppKing] & ~position.getOccupied() & (1L << square)) != 0L) {
 			return 1;
 		}
 
@@ -0,0 +1,272 @@
+package ai.search;
+
+import game.Position;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         MovePicker hands the search a position's moves one at a time, in the
+ *         order most likely to cause a cutoff. Moves are picked in stages:
+ *
+ *         1: the hash move (the best move the TranspositionTable remembers)
+ *
+ *         2: captures and promotions that don't lose material, most valuable
+ *         victim first, then least valuable attacker (MVV-LVA)
+ *
+ *         3: killer moves (quiet moves that caused a cutoff at the same ply)
+ *
+ *         4: the other quiet moves, the ones that caused the most cutoffs
+ *         before first (history heuristic)
+ *
+ *         5: captures that lose material in the exchange
+ *
+ *         - each stage only picks its best move when it's asked for the next
+ *         one, so the moves after a cutoff are never sorted or exchanged
+ *
+ *         - the search keeps one MovePicker per ply, so picking moves doesn't
+ *         create arrays (not even for the exchanges)
+ *
+ */
+public class MovePicker {
+
+	// stages
+	private static final int HASH_MOVE = 0;
+	private static final int SCORE_CAPTURES = 1;
+	private static final int GOOD_CAPTURES = 2;
+	private static final int KILLERS = 3;
+	private static final int QUIETS = 4;
+	private static final int BAD_CAPTURES = 5;
+	private static final int DONE = 6;
+
+	private Position position;
+	private int[] moves;
+	private int[] scores; // the score of each move, for the stage picking it
+	private int count;
+	private int next; // the index of the first move that hasn't been picked
+	private int capturesEnd; // the index after the last capture
+	private int stage;
+	private boolean capturesOnly; // true to stop after the good captures
+
+	private int hashMove;
+	private int[] killers;
+	private int killerIndex;
+	private int[][] history;
+
+	private int[] badCaptures; // captures put off until the end
+	private int badCount;
+	private int badIndex;
+
+	private int[] gains; // the swap list for StaticExchange
+
+	public MovePicker() {
+		scores = new int[MoveGenerator.MAX_MOVES];
+		badCaptures = new int[MoveGenerator.MAX_MOVES];
+		gains = new int[StaticExchange.MAX_EXCHANGE];
+	}
+
+	/**
+	 * starts picking from every legal move of a position
+	 *
+	 * @param position the Position the moves are made from
+	 * @param moves    the packed legal moves (reordered as they're picked)
+	 * @param count    the amount of moves
+	 * @param hashMove the best move from the TranspositionTable, or NO_MOVE
+	 * @param killers  the killer moves of this ply
+	 * @param history  the history score of each piece code and destination
+	 */
+	public void init(Position position, int[] moves, int count, int hashMove, int[] killers, int[][] history) {
+		this.position = position;
+		this.moves = moves;
+		this.count = count;
+		this.hashMove = hashMove;
+		this.killers = killers;
+		this.history = history;
+		next = 0;
+		stage = HASH_MOVE;
+		capturesOnly = false;
+		killerIndex = 0;
+		badCount = 0;
+		badIndex = 0;
+	}
+
+	/**
+	 * starts picking from a position's captures and promotions. Captures that
+	 * lose material are left out
+	 *
+	 * @param position the Position the moves are made from
+	 * @param moves    the packed legal captures and promotions
+	 * @param count    the amount of moves
+	 */
+	public void initCaptures(Position position, int[] moves, int count) {
+		init(position, moves, count, MoveEncoder.NO_MOVE, null, null);
+		capturesOnly = true;
+	}
+
+	/**
+	 * @return the next packed move to search, NO_MOVE once every move has been
+	 *         picked
+	 */
+	public int next() {
+		int move;
+
+		while (true) {
+			switch (stage) {
+			case HASH_MOVE:
+				stage = SCORE_CAPTURES;
+				if (hashMove != MoveEncoder.NO_MOVE && moveToNext(hashMove)) {
+					return moves[next++];
+				}
+				break;
+
+			case SCORE_CAPTURES:
+				stage = GOOD_CAPTURES;
+				capturesEnd = scoreCaptures();
+				break;
+
+			case GOOD_CAPTURES:
+				while (next < capturesEnd) {
+					move = pickBest(capturesEnd);
+					if (StaticExchange.evaluate(position, move, gains) < 0) {
+						badCaptures[badCount++] = move;
+						continue;
+					}
+					return move;
+				}
+				stage = capturesOnly ? DONE : KILLERS;
+				break;
+
+			case KILLERS:
+				while (killerIndex < killers.length) {
+					move = killers[killerIndex++];
+					if (move != MoveEncoder.NO_MOVE && moveToNext(move)) {
+						return moves[next++];
+					}
+				}
+				stage = QUIETS;
+				scoreQuiets();
+				break;
+
+			case QUIETS:
+				if (next < count) {
+					return pickBest(count);
+				}
+				stage = BAD_CAPTURES;
+				break;
+
+			case BAD_CAPTURES:
+				if (badIndex < badCount) {
+					return badCaptures[badIndex++];
+				}
+				stage = DONE;
+				break;
+
+			default:
+				return MoveEncoder.NO_MOVE;
+			}
+		}
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return true if the move doesn't capture or promote, false otherwise
+	 */
+	public static boolean isQuiet(int move) {
+		return !MoveEncoder.isCapture(move) && !MoveEncoder.isPromotion(move);
+	}
+
+	/**
+	 * HELPER
+	 * METHODS---------------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * moves the captures and promotions to the front of the unpicked moves and
+	 * scores them by MVV-LVA
+	 *
+	 * @return the index after the last capture
+	 */
+	private int scoreCaptures() {
+		int end = next;
+		int move;
+
+		for (int i = next; i < count; i++) {
+			move = moves[i];
+			if (!isQuiet(move)) {
+				moves[i] = moves[end];
+				moves[end] = move;
+
+				// most valuable victim first, then least valuable attacker
+				scores[end] = StaticExchange.getCapturedValue(move) * 10
+						- StaticExchange.getValue(Position.getTypeOf(MoveEncoder.getPiece(move)));
+				if (MoveEncoder.isPromotion(move)) {
+					scores[end] += (StaticExchange.getValue(MoveEncoder.getPromotion(move))
+							- StaticExchange.getValue(Type.PAWN)) * 10;
+				}
+				end++;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * scores the unpicked quiet moves by how many cutoffs they caused before
+	 */
+	private void scoreQuiets() {
+		for (int i = next; i < count; i++) {
+			scores[i] = history[MoveEncoder.getPiece(moves[i])][MoveEncoder.getTo(moves[i])];
+		}
+	}
+
+	/**
+	 * picks the highest scoring unpicked move before end
+	 *
+	 * @param end the index after the last move that can be picked
+	 * @return the picked move
+	 */
+	private int pickBest(int end) {
+		int best = next;
+		for (int i = next + 1; i < end; i++) {
+			if (scores[i] > scores[best]) {
+				best = i;
+			}
+		}
+		swap(best, next);
+		return moves[next++];
+	}
+
+	/**
+	 * moves the given move to the next index, if it hasn't been picked yet
+	 *
+	 * @param move the packed move being looked for
+	 * @return true if the move was found, false otherwise
+	 */
+	private boolean moveToNext(int move) {
+		for (int i = next; i < count; i++) {
+			if (moves[i] == move) {
+				swap(i, next);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * swaps two moves (and their scores)
+	 *
+	 * @param i the index of the first move
+	 * @param j the index of the second move
+	 */
+	private void swap(int i, int j) {
+		int temp = moves[i];
+		moves[i] = moves[j];
+		moves[j] = temp;
+
+		temp = scores[i];
+		scores[i] = scores[j];
+		scores[j] = temp;
+	}
+}
@@ -0,0 +1,24 @@
+package ai.search;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         SearchListener is told about the search's progress, so a front end
+ *         can show what the AI is thinking while it thinks
+ *
+ */
+public interface SearchListener {
+
+	/**
+	 * called each time the search finishes a depth (on the searching thread)
+	 *
+	 * @param searcher the Searcher (for its nodes and time)
+	 * @param depth    the depth that was finished
+	 * @param score    the best move's score in centipawns, for the player to move
+	 * @param pv       the packed moves the search expects to be played, best move
+	 *                 first
+	 * @param pvLength the amount of moves in pv
+	 */
+	public void depthFinished(Searcher searcher, int depth, int score, int[] pv, int pvLength);
+}
@@ -0,0 +1,819 @@
+package ai.search;
+
+import java.util.Arrays;
+
+import ai.difficulty.Difficulty;
+import game.EndGameCheck;
+import game.KeyHistory;
+import game.Position;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Searcher looks ahead from the AI's possible moves with a negamax
+ *         alpha-beta search
+ *
+ *         - the search goes one move deeper each time (iterative deepening), so
+ *         the best moves so far are always tried first
+ *
+ *         - with a time limit, the search keeps going deeper until time runs
+ *         out, then uses the last depth it finished. It can also be stopped
+ *         from another thread, even before it starts (it stays stopped until
+ *         clearStop is called)
+ *
+ *         - positions at the end of the search are scored by the Difficulty,
+ *         once the captures and promotions have been played out (quiescence
+ *         search). The player to move can always stop capturing and keep the
+ *         score it has (stand pat), and captures that can't raise the score
+ *         enough or that lose material in the exchange are skipped
+ *
+ *         - a position that has already happened is scored as a draw
+ *
+ *         - positions are looked up in the TranspositionTable before they are
+ *         searched or scored
+ *
+ *         - moves are searched in the order the MovePicker picks them. Quiet
+ *         moves that cause a cutoff are remembered as killer moves for their
+ *         ply, and add to their history score
+ *
+ *         - scores are kept in centipawns (1 pawn = 100) so they can be
+ *         compared exactly
+ *
+ *         - with more than one thread, helper Searchers search the same moves
+ *         on their own copy of the position (Lazy SMP). They share the
+ *         TranspositionTable, so what one finds the others can use. Every
+ *         other helper starts one depth deeper, so the threads don't all
+ *         search the same depth at once. Only this Searcher's result is used
+ *
+ */
+public class Searcher {
+
+	// scores
+	public static final int INFINITY = 1000000;
+	public static final int MATE = 100000; // minus the amount of moves it takes to get there
+	public static final int DRAW = 0;
+
+	private static final int MAX_PLY = 64;
+	private static final int CHECK_TIME_NODES = 1024; // how often the time is checked
+	private static final int DELTA_MARGIN = 200; // how much a capture's position can add to its worth
+	private static final int KILLERS = 2; // killer moves kept per ply
+	private static final int MAX_HISTORY = 1 << 20; // history scores are halved past this
+
+	private Difficulty settings;
+	private TranspositionTable table;
+	private Position position;
+	private Color friend; // the AI's color (the side to move at the root)
+	private KeyHistory keyHistory; // the positions before each move, up to the one being searched
+	private int[][] moveLists; // a move list for each ply, so searching doesn't create arrays
+	private MovePicker[] pickers; // a MovePicker for each ply
+	private int[][] killers; // quiet moves that caused a cutoff at each ply
+	private int[][] history; // how much each quiet move (by piece code and destination) caused cutoffs
+	private long nodes;
+
+	// helper threads
+	private int threads; // the amount of threads searching, including this one
+	private Searcher[] helpers;
+	private Thread[] helperThreads;
+
+	// limits
+	private long timeLimit; // how long a search can take in milliseconds, 0 for no limit
+	private long startTime; // when the current search started
+	private long deadline; // when the current search has to stop
+	private volatile boolean stopped; // true once the current search has to stop
+	private volatile boolean stopRequested; // true if stop was called since clearStop
+
+	// results of the last search, one per root move
+	private int[] values; // the score after each root move (an upper bound if it wasn't the best)
+	private int[] staticValues; // the score right after each root move, without looking ahead
+	private boolean[] exact; // false for each root move whose value is only an upper bound
+	private int bestIndex;
+	private int completedDepth; // the deepest search that finished
+	private SearchListener listener; // told about each finished depth, or null
+	private int[] pv; // the moves expected to be played
+
+	/**
+	 * @param settings the Difficulty that scores positions
+	 * @param table    the TranspositionTable that remembers searched positions
+	 */
+	public Searcher(Difficulty settings, TranspositionTable table) {
+		this.settings = settings;
+		this.table = table;
+		moveLists = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+		pickers = new MovePicker[MAX_PLY];
+		for (int i = 0; i < MAX_PLY; i++) {
+			pickers[i] = new MovePicker();
+		}
+		killers = new int[MAX_PLY][KILLERS];
+		history = new int[12][64];
+		threads = 1;
+		helpers = new Searcher[0];
+		pv = new int[MAX_PLY];
+	}
+
+	/**
+	 * searches each of the AI's possible moves to the Difficulty's search depth
+	 * (or as deep as it can before the time limit). Each move starts with the
+	 * score it was already given, and the search finds how much better or worse
+	 * the move really is once the replies are seen
+	 *
+	 * @param position   the Position the AI is moving from (unchanged once done)
+	 * @param keyHistory the KeyHistory of the positions before each past move,
+	 *                   including position (unchanged once done)
+	 * @param moves      the packed root moves
+	 * @param scores     the score already given to each root move
+	 * @param count      the amount of root moves
+	 * @return the index of the best root move
+	 */
+	public int search(Position position, KeyHistory keyHistory, int[] moves, double[] scores, int count) {
+		this.position = position;
+		this.keyHistory = keyHistory;
+		friend = position.getSideToMove();
+		nodes = 0;
+		startTime = System.currentTimeMillis();
+		deadline = startTime + timeLimit;
+
+		// running out of time only stops one search, stop stops them until clearStop
+		stopped = false;
+		if (stopRequested) {
+			stopped = true;
+		}
+
+		clearMoveOrdering();
+		table.newSearch();
+		values = new int[count];
+		staticValues = new int[count];
+		exact = new boolean[count];
+		Arrays.fill(exact, true);
+
+		int[] bonuses = new int[count]; // what the score adds to the searched value
+		int[] totals = new int[count];
+		int[] order = new int[count];
+		boolean[] isOver = new boolean[count];
+
+		// score each move without looking ahead
+		for (int i = 0; i < count; i++) {
+			position.makeMove(moves[i]);
+			staticValues[i] = -evaluate();
+			isOver[i] = isGameOver();
+			position.unmakeMove(moves[i]);
+
+			values[i] = staticValues[i];
+			bonuses[i] = toCentipawns(scores[i]) - staticValues[i];
+			totals[i] = bonuses[i] + values[i];
+			order[i] = i;
+		}
+		sortByTotal(order, totals);
+		bestIndex = count == 0 ? -1 : order[0];
+		completedDepth = 1;
+
+		// with a time limit, only time stops the search (unless there's no choice)
+		int maxDepth = settings.getSearchDepth();
+		if (timeLimit > 0) {
+			maxDepth = count > 1 ? MAX_PLY - 1 : 1;
+		}
+
+		// the helpers search until this Searcher is done
+		if (maxDepth >= 2) {
+			startHelpers(moves, bonuses, totals, order, isOver, count, maxDepth);
+		}
+		deepen(moves, bonuses, totals, order, isOver, count, 2, maxDepth);
+		stopHelpers();
+
+		return bestIndex;
+	}
+
+	/**
+	 * searches the root moves one depth deeper at a time, keeping the results of
+	 * the last depth that finished
+	 *
+	 * @param moves      the packed root moves
+	 * @param bonuses    what each root move's score adds to its searched value
+	 * @param totals     the total of each root move
+	 * @param order      the order the root moves are searched in
+	 * @param isOver     true for each root move that ends the game
+	 * @param count      the amount of root moves
+	 * @param startDepth the first depth searched
+	 * @param maxDepth   the last depth searched
+	 */
+	private void deepen(int[] moves, int[] bonuses, int[] totals, int[] order, boolean[] isOver, int count,
+			int startDepth, int maxDepth) {
+		int[] completedValues = values.clone();
+		boolean[] completedExact = exact.clone();
+
+		for (int depth = startDepth; depth <= maxDepth; depth++) {
+			int alpha = -INFINITY;
+			int bestSoFar = bestIndex;
+			int index;
+
+			for (int i = 0; i < count; i++) {
+				index = order[i];
+
+				// the game already scored moves that end the game
+				if (!isOver[index]) {
+					position.makeMove(moves[index]);
+					values[index] = -negamax(depth - 1, -INFINITY, -(alpha - bonuses[index]), 1);
+					position.unmakeMove(moves[index]);
+				}
+				totals[index] = bonuses[index] + values[index];
+
+				if (stopped) {
+					break;
+				}
+
+				// a move that couldn't beat alpha only found out it's no better
+				exact[index] = isOver[index] || totals[index] > alpha;
+				if (totals[index] > alpha) {
+					alpha = totals[index];
+					bestIndex = index;
+				}
+			}
+
+			// an unfinished depth can't be trusted, so go back to the last one
+			if (stopped) {
+				values = completedValues;
+				exact = completedExact;
+				bestIndex = bestSoFar;
+				break;
+			}
+			completedValues = values.clone();
+			completedExact = exact.clone();
+			completedDepth = depth;
+			if (listener != null) {
+				listener.depthFinished(this, depth, values[bestIndex], pv, getPrincipalVariation(moves[bestIndex]));
+			}
+
+			// try the best moves first next time
+			sortByTotal(order, totals);
+			moveToFront(order, bestIndex);
+		}
+	}
+
+	/**
+	 * starts a thread for each helper. Each helper gets its own copy of the
+	 * position and root moves, and searches without a time limit until
+	 * stopHelpers is called
+	 *
+	 * @param moves    the packed root moves
+	 * @param bonuses  what each root move's score adds to its searched value
+	 * @param totals   the total of each root move
+	 * @param order    the order the root moves are searched in
+	 * @param isOver   true for each root move that ends the game
+	 * @param count    the amount of root moves
+	 * @param maxDepth the last depth searched
+	 */
+	private void startHelpers(int[] moves, int[] bonuses, int[] totals, int[] order, boolean[] isOver, int count,
+			int maxDepth) {
+		if (helpers.length != threads - 1) {
+			helpers = new Searcher[threads - 1];
+			for (int i = 0; i < helpers.length; i++) {
+				helpers[i] = new Searcher(settings, table);
+			}
+		}
+		helperThreads = new Thread[helpers.length];
+
+		for (int i = 0; i < helpers.length; i++) {
+			Searcher helper = helpers[i];
+			int startDepth = 2 + (i + 1) % 2; // every other helper starts a depth ahead
+			int[] helperTotals = totals.clone();
+			int[] helperOrder = order.clone();
+
+			helper.position = new Position(position);
+			helper.friend = friend;
+			helper.keyHistory = new KeyHistory(keyHistory);
+			helper.table = table;
+			helper.nodes = 0;
+			helper.timeLimit = 0;
+			helper.values = values.clone();
+			helper.staticValues = staticValues;
+			helper.bestIndex = bestIndex;
+			helper.clearStop();
+			helper.clearMoveOrdering();
+
+			helperThreads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					helper.deepen(moves, bonuses, helperTotals, helperOrder, isOver, count, startDepth, maxDepth);
+				}
+			}, "Search Helper " + (i + 1));
+			helperThreads[i].setDaemon(true);
+			helperThreads[i].start();
+		}
+	}
+
+	/**
+	 * stops the helpers and waits for their threads to end
+	 */
+	private void stopHelpers() {
+		if (helperThreads == null) {
+			return;
+		}
+		for (Searcher helper : helpers) {
+			helper.stop();
+		}
+		for (Thread helperThread : helperThreads) {
+			try {
+				helperThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		helperThreads = null;
+	}
+
+	/**
+	 * scores the position by searching every move to the given depth
+	 *
+	 * @param depth the amount of moves left to search
+	 * @param alpha the score the player to move is already guaranteed
+	 * @param beta  the score the opponent is already guaranteed
+	 * @param ply   the amount of moves since the root
+	 * @return the score for the player to move
+	 */
+	private int negamax(int depth, int alpha, int beta, int ply) {
+		if (++nodes % CHECK_TIME_NODES == 0 && timeLimit > 0 && System.currentTimeMillis() >= deadline) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0;
+		}
+
+		if (isDrawnByRule() || isRepetition()) {
+			return DRAW;
+		}
+
+		// see if this position was already searched deep enough
+		long key = position.getKey();
+		long entry = table.probe(key);
+		int hashMove = MoveEncoder.NO_MOVE;
+		if (entry != TranspositionTable.NO_ENTRY) {
+			hashMove = TranspositionTable.getMove(entry);
+
+			if (TranspositionTable.getDepth(entry) >= depth) {
+				int score = TranspositionTable.getScore(entry, ply);
+				int bound = TranspositionTable.getBound(entry);
+
+				if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta)
+						|| (bound == TranspositionTable.UPPER && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		if (depth == 0 || ply == MAX_PLY) {
+			int score = quiesce(alpha, beta, ply);
+			if (!stopped) {
+				table.store(key, MoveEncoder.NO_MOVE, score, 0, getBound(score, alpha, beta), ply);
+			}
+			return score;
+		}
+
+		int[] moves = moveLists[ply];
+		int count = MoveGenerator.getLegalMoves(position, moves);
+
+		// checkmate or stalemate (sooner checkmates score higher)
+		if (count == 0) {
+			return MoveGenerator.inCheck(position) ? -MATE + ply : DRAW;
+		}
+		MovePicker picker = pickers[ply];
+		picker.init(position, moves, count, hashMove, killers[ply], history);
+
+		int originalAlpha = alpha;
+		int bestScore = -INFINITY;
+		int bestMove = MoveEncoder.NO_MOVE;
+		int score;
+		int move;
+		keyHistory.add(key);
+		while ((move = picker.next()) != MoveEncoder.NO_MOVE) {
+			position.makeMove(move);
+			score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+			position.unmakeMove(move);
+
+			// a stopped search's scores mean nothing, so they aren't stored
+			if (stopped) {
+				keyHistory.removeLast();
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+			}
+			if (score > alpha) {
+				alpha = score;
+			}
+			// the opponent won't allow this position
+			if (alpha >= beta) {
+				if (MovePicker.isQuiet(move)) {
+					addCutoff(move, depth, ply);
+				}
+				break;
+			}
+		}
+		keyHistory.removeLast();
+
+		table.store(key, bestMove, bestScore, depth, getBound(bestScore, originalAlpha, beta), ply);
+		return bestScore;
+	}
+
+	/**
+	 * scores the position once the captures and promotions are played out. In
+	 * check, every move is searched, since standing pat isn't possible
+	 *
+	 * @param alpha the score the player to move is already guaranteed
+	 * @param beta  the score the opponent is already guaranteed
+	 * @param ply   the amount of moves since the root
+	 * @return the score for the player to move
+	 */
+	private int quiesce(int alpha, int beta, int ply) {
+		if (++nodes % CHECK_TIME_NODES == 0 && timeLimit > 0 && System.currentTimeMillis() >= deadline) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0;
+		}
+		if (ply >= MAX_PLY) {
+			return evaluate();
+		}
+
+		boolean inCheck = MoveGenerator.inCheck(position);
+		int[] moves = moveLists[ply];
+		MovePicker picker = pickers[ply];
+		int count;
+		int bestScore;
+		int standPat = 0;
+
+		if (inCheck) {
+			count = MoveGenerator.getLegalMoves(position, moves);
+			if (count == 0) {
+				return -MATE + ply;
+			}
+			picker.init(position, moves, count, MoveEncoder.NO_MOVE, killers[ply], history);
+			bestScore = -INFINITY;
+		} else {
+			// the player to move can stop capturing
+			standPat = evaluate();
+			if (standPat >= beta) {
+				return standPat;
+			}
+			if (standPat > alpha) {
+				alpha = standPat;
+			}
+			// captures that lose the piece in the exchange are never picked
+			count = MoveGenerator.getLegalCaptures(position, moves);
+			picker.initCaptures(position, moves, count);
+			bestScore = standPat;
+		}
+
+		int score;
+		int move;
+		while ((move = picker.next()) != MoveEncoder.NO_MOVE) {
+			// even winning the piece for free wouldn't be enough (delta pruning)
+			if (!inCheck) {
+				int gain = StaticExchange.getCapturedValue(move);
+				if (MoveEncoder.isPromotion(move)) {
+					gain += StaticExchange.getValue(MoveEncoder.getPromotion(move))
+							- StaticExchange.getValue(Type.PAWN);
+				}
+				if (standPat + gain + DELTA_MARGIN <= alpha) {
+					continue;
+				}
+			}
+
+			position.makeMove(move);
+			score = -quiesce(-beta, -alpha, ply + 1);
+			position.unmakeMove(move);
+
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+			}
+			if (score > alpha) {
+				alpha = score;
+			}
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		return bestScore;
+	}
+
+	/**
+	 * @param score the score found for a position
+	 * @param alpha the alpha the position was searched with
+	 * @param beta  the beta the position was searched with
+	 * @return the TranspositionTable bound the score is
+	 */
+	private static int getBound(int score, int alpha, int beta) {
+		if (score <= alpha) {
+			return TranspositionTable.UPPER;
+		} else if (score >= beta) {
+			return TranspositionTable.LOWER;
+		}
+		return TranspositionTable.EXACT;
+	}
+
+	/**
+	 * follows the best moves in the TranspositionTable from the root, checking
+	 * each one is legal
+	 *
+	 * @param bestMove the best root move
+	 * @return the amount of moves put in pv
+	 */
+	private int getPrincipalVariation(int bestMove) {
+		int[] moves = moveLists[0];
+		long[] keys = new long[pv.length]; // the key before each move, so a loop can be seen
+		int length = 0;
+		int move = bestMove;
+		long entry;
+
+		while (length < pv.length) {
+			keys[length] = position.getKey();
+			pv[length++] = move;
+			position.makeMove(move);
+
+			entry = table.probe(position.getKey());
+			if (entry == TranspositionTable.NO_ENTRY || contains(keys, length, position.getKey())) {
+				break;
+			}
+			move = TranspositionTable.getMove(entry);
+			if (!isLegal(move, moves)) {
+				break;
+			}
+		}
+
+		for (int i = length - 1; i >= 0; i--) {
+			position.unmakeMove(pv[i]);
+		}
+		return length;
+	}
+
+	/**
+	 * @param move  the packed move
+	 * @param moves a move list to generate the legal moves into
+	 * @return true if the move can be played in the position, false otherwise
+	 */
+	private boolean isLegal(int move, int[] moves) {
+		if (move == MoveEncoder.NO_MOVE) {
+			return false;
+		}
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		for (int i = 0; i < count; i++) {
+			if (moves[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param keys   the keys being looked through
+	 * @param length the amount of keys
+	 * @param key    the key being looked for
+	 * @return true if key is one of the keys, false otherwise
+	 */
+	private static boolean contains(long[] keys, int length, long key) {
+		for (int i = 0; i < length; i++) {
+			if (keys[i] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * stops the search as soon as possible (can be called from another thread).
+	 * The search stays stopped until clearStop is called
+	 */
+	public void stop() {
+		stopRequested = true;
+		stopped = true;
+	}
+
+	/**
+	 * lets the next search run again after stop was called
+	 */
+	public void clearStop() {
+		stopRequested = false;
+		stopped = false;
+	}
+
+	/**
+	 * @return the Difficulty's score for the position in centipawns
+	 */
+	private int evaluate() {
+		return toCentipawns(settings.evaluate(position, friend));
+	}
+
+	/**
+	 * @return true if the game is over in the position, false otherwise
+	 */
+	private boolean isGameOver() {
+		return isDrawnByRule() || !MoveGenerator.hasLegalMove(position);
+	}
+
+	/**
+	 * @return true if the position is a draw by the 50-move rule or insufficient
+	 *         material
+	 */
+	private boolean isDrawnByRule() {
+		return position.getHalfMoveClock() >= 100 || !EndGameCheck.sufficientMaterial(position);
+	}
+
+	/**
+	 * @return true if the position has happened before (since the last pawn move
+	 *         or capture), false otherwise
+	 */
+	private boolean isRepetition() {
+		return keyHistory.getRepetitions(position.getKey(), position.getHalfMoveClock()) > 0;
+	}
+
+	/**
+	 * remembers a quiet move that caused a cutoff, as a killer move for its ply and
+	 * in the history scores
+	 *
+	 * @param move  the packed quiet move
+	 * @param depth the depth the move was searched to
+	 * @param ply   the amount of moves since the root
+	 */
+	private void addCutoff(int move, int depth, int ply) {
+		int[] plyKillers = killers[ply];
+		if (plyKillers[0] != move) {
+			for (int i = plyKillers.length - 1; i > 0; i--) {
+				plyKillers[i] = plyKillers[i - 1];
+			}
+			plyKillers[0] = move;
+		}
+
+		// deeper cutoffs say more about the move
+		int[] pieceHistory = history[MoveEncoder.getPiece(move)];
+		pieceHistory[MoveEncoder.getTo(move)] += depth * depth;
+		if (pieceHistory[MoveEncoder.getTo(move)] > MAX_HISTORY) {
+			ageHistory();
+		}
+	}
+
+	/**
+	 * forgets the killer moves and halves the history scores, so the last search
+	 * still counts for something but the new one soon takes over
+	 */
+	private void clearMoveOrdering() {
+		for (int[] plyKillers : killers) {
+			Arrays.fill(plyKillers, MoveEncoder.NO_MOVE);
+		}
+		ageHistory();
+	}
+
+	/**
+	 * halves every history score
+	 */
+	private void ageHistory() {
+		for (int[] pieceHistory : history) {
+			for (int i = 0; i < pieceHistory.length; i++) {
+				pieceHistory[i] /= 2;
+			}
+		}
+	}
+
+	/**
+	 * sorts the indexes in order by descending total (insertion sort, since the
+	 * order barely changes between searches)
+	 *
+	 * @param order  the indexes of the root moves
+	 * @param totals the total of each root move
+	 */
+	private static void sortByTotal(int[] order, int[] totals) {
+		int index;
+		int j;
+
+		for (int i = 1; i < order.length; i++) {
+			index = order[i];
+			for (j = i - 1; j >= 0 && totals[order[j]] < totals[index]; j--) {
+				order[j + 1] = order[j];
+			}
+			order[j + 1] = index;
+		}
+	}
+
+	/**
+	 * moves the given index to the front of the order
+	 *
+	 * @param order the indexes of the root moves
+	 * @param index the index being moved
+	 */
+	private static void moveToFront(int[] order, int index) {
+		int i = 0;
+		while (order[i] != index) {
+			i++;
+		}
+		for (; i > 0; i--) {
+			order[i] = order[i - 1];
+		}
+		order[0] = index;
+	}
+
+	/**
+	 * @param points a score in pawns
+	 * @return the score in centipawns
+	 */
+	private static int toCentipawns(double points) {
+		return (int) Math.round(points * 100);
+	}
+
+	// getters and setters
+
+	/**
+	 * @param index the index of the root move
+	 * @return how many points looking ahead added to the move (in pawns)
+	 */
+	public double getLookAhead(int index) {
+		return (values[index] - staticValues[index]) / 100.0;
+	}
+
+	/**
+	 * @param index the index of the root move
+	 * @return true if the move's look ahead is its real value, false if it's only
+	 *         an upper bound (the move was searched just far enough to show it
+	 *         wasn't the best)
+	 */
+	public boolean isExact(int index) {
+		return exact[index];
+	}
+
+	public int getBestIndex() {
+		return bestIndex;
+	}
+
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	public long getTimeLimit() {
+		return timeLimit;
+	}
+
+	/**
+	 * @param timeLimit how long a search can take in milliseconds, 0 to search to
+	 *                  the Difficulty's depth instead
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * @return the amount of positions searched by every thread in the last search
+	 */
+	public long getNodes() {
+		long total = nodes;
+		for (Searcher helper : helpers) {
+			total += helper.nodes;
+		}
+		return total;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return how long the current (or last) search has taken in milliseconds
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	public SearchListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param listener told about each depth the search finishes, or null
+	 */
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @param threads the amount of threads that search (at least 1)
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(threads, 1);
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return table;
+	}
+
+	public void setTranspositionTable(TranspositionTable table) {
+		this.table = table;
+	}
+}
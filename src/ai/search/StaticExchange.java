@@ -0,0 +1,123 @@
+package ai.search;
+
+import game.Position;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         StaticExchange works out what a capture wins or loses once every
+ *         piece that can take on the square has taken, without making any moves
+ *         (static exchange evaluation)
+ *
+ *         - each side takes with its least valuable piece, and either side can
+ *         stop taking when it would only lose more
+ *
+ *         - sliding pieces lined up behind a piece that takes join in (x-rays)
+ *
+ *         - pins are ignored, and a king only takes if nothing can take it back
+ *
+ *         - the swap list is kept in a buffer from the caller (each MovePicker
+ *         has one), so evaluating doesn't create arrays
+ *
+ *         - the root analysis has its own exchanges (ai.analyzer.Exchange),
+ *         which keep the whole sequence and score it the way the Difficulties
+ *         were tuned for. Both give the same material for simple exchanges
+ *         (see tools.EvalCheck)
+ *
+ */
+public interface StaticExchange {
+
+	public static final int MAX_EXCHANGE = 32; // the length of a gains buffer
+
+	// the order pieces take in (least valuable first)
+	public static final Type[] BY_WORTH = { Type.PAWN, Type.KNIGHT, Type.BISHOP, Type.ROOK, Type.QUEEN,
+			Type.KING };
+
+	/**
+	 * works out the material the side to move wins (or loses) with a move once the
+	 * exchange on its square is over
+	 *
+	 * @param position the Position the move is made from (unchanged once done)
+	 * @param move     the packed move
+	 * @param gains    the buffer for the swap list (MAX_EXCHANGE long, its
+	 *                 contents are overwritten)
+	 * @return the material won in centipawns (negative if it's lost)
+	 */
+	public static int evaluate(Position position, int move, int[] gains) {
+		int from = MoveEncoder.getFrom(move);
+		int to = MoveEncoder.getTo(move);
+		long occupied = position.getOccupied();
+		Color side = Position.getColorOf(MoveEncoder.getPiece(move));
+		Type taker = Position.getTypeOf(MoveEncoder.getPiece(move));
+		int depth = 0;
+
+		// the first capture
+		gains[0] = getCapturedValue(move);
+		if (MoveEncoder.isPromotion(move)) {
+			taker = MoveEncoder.getPromotion(move);
+			gains[0] += getValue(taker) - getValue(Type.PAWN);
+		}
+		if (MoveEncoder.isEnPassant(move)) {
+			occupied ^= 1L << MoveEncoder.getCaptureSquare(move);
+		}
+		long fromBit = 1L << from;
+
+		// the sides take turns taking on the square
+		while (fromBit != 0L && depth + 1 < gains.length) {
+			depth++;
+			gains[depth] = getValue(taker) - gains[depth - 1]; // if the last taker is taken
+
+			// neither side would keep taking
+			if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+				break;
+			}
+			occupied ^= fromBit;
+			side = Color.getOppColor(side);
+
+			fromBit = 0L;
+			long attackers = MoveGenerator.getAttackers(position, to, side, occupied) & occupied;
+			for (Type type : BY_WORTH) {
+				long pieces = attackers & position.getPieces(side, type);
+				if (pieces != 0L) {
+					// a king can't take a defended piece
+					if (type == Type.KING && (MoveGenerator.getAttackers(position, to, Color.getOppColor(side),
+							occupied) & occupied) != 0L) {
+						break;
+					}
+					fromBit = pieces & -pieces;
+					taker = type;
+					break;
+				}
+			}
+		}
+
+		// each side picks the best of taking or stopping, from the last capture back
+		while (--depth > 0) {
+			gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+		}
+		return gains[0];
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the value of the piece the move captures in centipawns (0 if it
+	 *         isn't a capture)
+	 */
+	public static int getCapturedValue(int move) {
+		int captured = MoveEncoder.getCaptured(move);
+		return captured == Position.EMPTY ? 0 : getValue(Position.getTypeOf(captured));
+	}
+
+	/**
+	 * @param type the type of piece
+	 * @return the piece's worth in centipawns
+	 */
+	public static int getValue(Type type) {
+		return (int) (type.worth * 100);
+	}
+}
@@ -0,0 +1,192 @@
+package ai.search;
+
+import game.helpers.MoveEncoder;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         TranspositionTable remembers what the search found out about
+ *         positions, so a position reached through a different move order
+ *         doesn't have to be searched again
+ *
+ *         - the table is one long[] created up front, with a power-of-two
+ *         amount of buckets so a key finds its bucket with a mask
+ *
+ *         - each bucket holds two entries: the first keeps the deepest search,
+ *         the second is always replaced
+ *
+ *         - the first entry only keeps a deep search from the current search.
+ *         Each search gets a new age (see newSearch), and entries left from
+ *         older searches are replaced whatever their depth, so a long game
+ *         doesn't fill the table with positions that can't be reached anymore
+ *
+ *         - an entry is two longs: the key XORed with the data, and the data
+ *         (best move, bound, depth, age, and score packed together)
+ *
+ *         - search threads share one table without locks. If two threads write
+ *         the same entry at once, the two longs no longer XOR back to the key,
+ *         so the broken entry is just never found
+ *
+ */
+public class TranspositionTable {
+
+	public static final int DEFAULT_SIZE_MB = 16;
+	public static final long NO_ENTRY = 0L; // data is never 0, since the bound is never 0
+
+	// bounds
+	public static final int EXACT = 1; // the score is exact
+	public static final int LOWER = 2; // the score is at least this (the search was cut off)
+	public static final int UPPER = 3; // the score is at most this (no move raised alpha)
+
+	// bits of the packed data
+	private static final int BOUND_SHIFT = 26; // the move uses bits 0 - 25
+	private static final int DEPTH_SHIFT = 28;
+	private static final int AGE_SHIFT = 36;
+	private static final int AGE_MASK = 0x3F;
+	private static final int SCORE_SHIFT = 42;
+
+	private static final int ENTRY_LONGS = 2;
+	private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+	private static final int MATE_BOUND = Searcher.MATE - 1000; // scores past this are mates
+
+	private long[] table;
+	private long bucketMask;
+	private int sizeMB;
+	private int age; // the age of the current search
+
+	/**
+	 * @param sizeMB the most memory the table can use, in megabytes (at least 1)
+	 */
+	public TranspositionTable(int sizeMB) {
+		this.sizeMB = Math.max(sizeMB, 1);
+
+		// round down to a power of two buckets
+		long buckets = Long.highestOneBit(this.sizeMB * 1024L * 1024L / (BUCKET_LONGS * Long.BYTES));
+		table = new long[(int) (buckets * BUCKET_LONGS)];
+		bucketMask = buckets - 1;
+	}
+
+	/**
+	 * looks for the given position in the table
+	 *
+	 * @param key the position's Zobrist key
+	 * @return the entry's data, or NO_ENTRY if the position isn't in the table
+	 */
+	public long probe(long key) {
+		int bucket = getBucket(key);
+		long data;
+
+		for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+			data = table[i + 1];
+			if ((table[i] ^ data) == key) {
+				return data;
+			}
+		}
+		return NO_ENTRY;
+	}
+
+	/**
+	 * starts a new search, so the entries stored before it can be replaced
+	 */
+	public void newSearch() {
+		age = (age + 1) & AGE_MASK;
+	}
+
+	/**
+	 * saves what the search found out about a position
+	 *
+	 * @param key   the position's Zobrist key
+	 * @param move  the best packed move, or MoveEncoder.NO_MOVE
+	 * @param score the position's score
+	 * @param depth how deep the position was searched
+	 * @param bound EXACT, LOWER, or UPPER
+	 * @param ply   the amount of moves since the root (so mates can be stored)
+	 */
+	public void store(long key, int move, int score, int depth, int bound, int ply) {
+		int bucket = getBucket(key);
+		int index = bucket + ENTRY_LONGS; // the always-replace entry
+		long stored = table[bucket + 1];
+
+		// the first entry is replaced by deeper searches, the same position, or an
+		// entry from an older search
+		if (stored == NO_ENTRY || depth >= getDepth(stored) || (table[bucket] ^ stored) == key
+				|| getAge(stored) != age) {
+			index = bucket;
+		}
+
+		// mates are stored as moves from this position, not from the root
+		if (score > MATE_BOUND) {
+			score += ply;
+		} else if (score < -MATE_BOUND) {
+			score -= ply;
+		}
+
+		long data = (move & MoveEncoder.MASK) | ((long) bound << BOUND_SHIFT) | ((long) depth << DEPTH_SHIFT)
+				| ((long) age << AGE_SHIFT) | ((long) score << SCORE_SHIFT);
+		table[index] = key ^ data;
+		table[index + 1] = data;
+	}
+
+	/**
+	 * forgets every position
+	 */
+	public void clear() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = 0L;
+		}
+	}
+
+	/**
+	 * @param key the position's Zobrist key
+	 * @return the index of the first long of the key's bucket
+	 */
+	private int getBucket(long key) {
+		return (int) (key & bucketMask) * BUCKET_LONGS;
+	}
+
+	/**
+	 * DATA
+	 * HELPERS---------------------------------------------------------------------------------------
+	 */
+
+	public static int getMove(long data) {
+		return (int) data & MoveEncoder.MASK;
+	}
+
+	public static int getBound(long data) {
+		return (int) (data >>> BOUND_SHIFT) & 3;
+	}
+
+	public static int getDepth(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * @param data the entry's data
+	 * @return the age of the search that stored the entry
+	 */
+	public static int getAge(long data) {
+		return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+	}
+
+	/**
+	 * @param data the entry's data
+	 * @param ply  the amount of moves since the root
+	 * @return the stored score, with mates counted from the root again
+	 */
+	public static int getScore(long data, int ply) {
+		int score = (int) (data >> SCORE_SHIFT);
+		if (score > MATE_BOUND) {
+			return score - ply;
+		} else if (score < -MATE_BOUND) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	// getters and setters
+	public int getSizeMB() {
+		return sizeMB;
+	}
+}
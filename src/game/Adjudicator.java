@@ -0,0 +1,24 @@
+package game;
+
+import game.EndGameCheck.Ending;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Adjudicator ends games that the rules haven't ended yet, so matches
+ *         between AIs don't play out games that are already decided
+ *
+ */
+public interface Adjudicator {
+
+	/**
+	 * decides if the game should end, after each move that doesn't end it
+	 *
+	 * @param position the Position after the move, with the next player to move
+	 * @param plies    the amount of moves played so far
+	 * @return RESIGNATION if the player to move has lost, ADJUDICATED_DRAW if the
+	 *         game is drawn, NOT_OVER to keep playing
+	 */
+	public Ending adjudicate(Position position, int plies);
+}
@@ -0,0 +1,242 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import game.helpers.Bitboards;
+import game.helpers.MoveGenerator;
+import pieces.Piece;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         AttackMap remembers the squares every piece on a board attacks, so
+ *         questions like "what does this piece control" or "is this king in
+ *         check" are answered without looking at the other pieces
+ *
+ *         - the map is made once for a board, then kept up to date by the
+ *         moves made and taken back with MoveExecuter
+ *
+ *         - after pieces are added or removed, update only works out the
+ *         attacks of the changed squares and of the sliding pieces whose rays
+ *         reached them. Every other piece attacks the same squares as before
+ *
+ *         - a piece attacks the squares it could capture on (a pawn's
+ *         diagonals), including squares with friendly pieces
+ *
+ */
+public class AttackMap {
+
+	private long[] attacks; // the squares attacked by the piece on each square
+	private int[] codes; // the piece code on each square (Position.EMPTY if there is none)
+	private int[] kings; // the square of each color's king
+	private long[] bitboards; // the squares of each kind of piece (by piece code)
+	private long occupied;
+	private long changed; // squares that changed since the last update
+	private long updated; // squares whose attacks were worked out in the last update
+
+	/**
+	 * @param pieces the ArrayList<Piece> of pieces
+	 */
+	public AttackMap(ArrayList<Piece> pieces) {
+		attacks = new long[64];
+		codes = new int[64];
+		kings = new int[2];
+		bitboards = new long[12];
+		Arrays.fill(codes, Position.EMPTY);
+
+		for (Piece p : pieces) {
+			addPiece(p.getIndex(), p.getColor(), p.getType());
+		}
+		update();
+	}
+
+	/**
+	 * copies another AttackMap (for another copy of the same board)
+	 *
+	 * @param attackMap the AttackMap being copied
+	 */
+	public AttackMap(AttackMap attackMap) {
+		attacks = attackMap.attacks.clone();
+		codes = attackMap.codes.clone();
+		kings = attackMap.kings.clone();
+		bitboards = attackMap.bitboards.clone();
+		occupied = attackMap.occupied;
+		changed = attackMap.changed;
+		updated = attackMap.updated;
+	}
+
+	/**
+	 * puts a piece on an empty square (the map is out of date until update is
+	 * called)
+	 *
+	 * @param square the index of the square
+	 * @param color  the piece's color
+	 * @param type   the piece's type
+	 */
+	public void addPiece(int square, Color color, Type type) {
+		codes[square] = Position.getPieceCode(color, type);
+		bitboards[codes[square]] |= 1L << square;
+		occupied |= 1L << square;
+		changed |= 1L << square;
+		if (type == Type.KING) {
+			kings[color.ordinal()] = square;
+		}
+	}
+
+	/**
+	 * takes the piece off a square (the map is out of date until update is called)
+	 *
+	 * @param square the index of the square
+	 */
+	public void removePiece(int square) {
+		if (codes[square] != Position.EMPTY) {
+			bitboards[codes[square]] &= ~(1L << square);
+		}
+		codes[square] = Position.EMPTY;
+		occupied &= ~(1L << square);
+		changed |= 1L << square;
+	}
+
+	/**
+	 * works out the attacks that changed since the last update
+	 */
+	public void update() {
+		long stale = changed;
+		long others = occupied & ~changed;
+		int square;
+		Type type;
+
+		// sliding pieces that reached a changed square now stop somewhere else
+		while (others != 0L) {
+			square = Long.numberOfTrailingZeros(others);
+			others &= others - 1;
+			type = Position.getTypeOf(codes[square]);
+			if ((attacks[square] & changed) != 0L
+					&& (type == Type.QUEEN || type == Type.ROOK || type == Type.BISHOP)) {
+				stale |= 1L << square;
+			}
+		}
+
+		updated = stale;
+		while (stale != 0L) {
+			square = Long.numberOfTrailingZeros(stale);
+			stale &= stale - 1;
+			attacks[square] = codes[square] == Position.EMPTY ? 0L : getAttacks(codes[square], square, occupied);
+		}
+		changed = 0L;
+	}
+
+	/**
+	 * @param square the index of the square
+	 * @return the squares attacked by the piece on the square, 0 if it's empty
+	 */
+	public long getAttacks(int square) {
+		return attacks[square];
+	}
+
+	/**
+	 * @param color the color of the attacking pieces
+	 * @return every square attacked by a piece of the given color
+	 */
+	public long getAttacks(Color color) {
+		long all = 0L;
+		for (int square = 0; square < 64; square++) {
+			if (codes[square] != Position.EMPTY && Position.getColorOf(codes[square]) == color) {
+				all |= attacks[square];
+			}
+		}
+		return all;
+	}
+
+	/**
+	 * @param square   the index of the square
+	 * @param attacker the color of the attacking pieces
+	 * @return true if a piece of the attacker's color attacks the square
+	 */
+	public boolean isAttacked(int square, Color attacker) {
+		long pieces = occupied;
+		int s;
+
+		while (pieces != 0L) {
+			s = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+			if ((attacks[s] & (1L << square)) != 0L && Position.getColorOf(codes[s]) == attacker) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * finds the pieces attacking a square as if only the given squares were
+	 * occupied, so pieces can be taken off the board without changing the map
+	 * (sliders behind a removed piece are found through it)
+	 *
+	 * @param square   the index of the square
+	 * @param attacker the color of the attacking pieces
+	 * @param occupied the squares that are still occupied
+	 * @return the bitboard of attacking pieces that are still on occupied
+	 */
+	public long getAttackers(int square, Color attacker, long occupied) {
+		long queens = getPieces(attacker, Type.QUEEN);
+		return ((Bitboards.PAWN_ATTACKS[Color.getOppColor(attacker).ordinal()][square]
+				& getPieces(attacker, Type.PAWN))
+				| (Bitboards.KNIGHT_ATTACKS[square] & getPieces(attacker, Type.KNIGHT))
+				| (Bitboards.KING_ATTACKS[square] & getPieces(attacker, Type.KING))
+				| (Bitboards.getBishopAttacks(square, occupied) & (getPieces(attacker, Type.BISHOP) | queens))
+				| (Bitboards.getRookAttacks(square, occupied) & (getPieces(attacker, Type.ROOK) | queens)))
+				& occupied;
+	}
+
+	/**
+	 * @param color the color of the king
+	 * @return true if the color's king is attacked
+	 */
+	public boolean inCheck(Color color) {
+		return isAttacked(kings[color.ordinal()], Color.getOppColor(color));
+	}
+
+	/**
+	 * finds the squares a piece attacks
+	 *
+	 * @param code     the piece code
+	 * @param square   the index of the piece's square
+	 * @param occupied the bitboard of pieces that block sliding pieces
+	 * @return the attacked squares
+	 */
+	public static long getAttacks(int code, int square, long occupied) {
+		if (Position.getTypeOf(code) == Type.PAWN) {
+			return Bitboards.PAWN_ATTACKS[Position.getColorCode(code)][square];
+		}
+		return MoveGenerator.getAttacks(Position.getTypeOf(code), square, occupied);
+	}
+
+	// getters and setters
+	public int getPiece(int square) {
+		return codes[square];
+	}
+
+	public long getPieces(Color color, Type type) {
+		return bitboards[Position.getPieceCode(color, type)];
+	}
+
+	public int getKingSquare(Color color) {
+		return kings[color.ordinal()];
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * @return the squares whose attacks were worked out in the last update (every
+	 *         square that changed, and the sliding pieces that could see them)
+	 */
+	public long getUpdated() {
+		return updated;
+	}
+}
@@ -12,6 +12,7 @@ import gui.ChessDriver;
 public class ChessThread extends Thread {
 
 	private ChessDriver gui;
+	private volatile StandardGame game;
 
 	/**
 	 * @param gui the GUI associated with this game
@@ -23,10 +24,20 @@ public class ChessThread extends Thread {
 	public void run() {
 		Thread.currentThread().setName("Chess Thread");
 		// assume a regular game is being played
-		StandardGame game = new StandardGame(gui);
+		game = new StandardGame(gui);
 		game.startGame();
 
 		// the game is over
 		FXCommander.displayEndGame(game.getEnding(), gui);
 	}
+
+	/**
+	 * stops the AI if it is thinking, so it moves with the best move it has found
+	 * so far (can be called from any thread)
+	 */
+	public void stopThinking() {
+		if (game != null) {
+			game.getAI().stop();
+		}
+	}
 }
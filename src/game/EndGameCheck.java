@@ -1,11 +1,11 @@
 package game;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
-import game.helpers.Copier;
+import game.helpers.Converter;
 import game.helpers.Finder;
+import game.helpers.MoveGenerator;
 import pieces.Piece;
 import pieces.Piece.Color;
 import pieces.Piece.Type;
@@ -24,7 +24,8 @@ public class EndGameCheck {
 	public static enum Ending {
 		NOT_OVER("0-0", false), CHECKMATE("Check mate!", false), STALEMATE("Draw by Stalemate", true),
 		THREE_FOLD_REPETITION("Draw by three-fold repetition", true),
-		INSUFFICIENT_MATERIAL("Draw by insufficient material", true), FIFTY_MOVE_RULE("Draw by 50-move Rule", true);
+		INSUFFICIENT_MATERIAL("Draw by insufficient material", true), FIFTY_MOVE_RULE("Draw by 50-move Rule", true),
+		RESIGNATION("Resignation", false), ADJUDICATED_DRAW("Draw by adjudication", true);
 
 		public String message;
 		public boolean isDraw; // this ending is a type of draw
@@ -40,36 +41,34 @@ public class EndGameCheck {
 	/**
 	 * @param pieces     the ArrayList<Piece> of pieces
 	 * @param history    the LinkedList of past moves
+	 * @param keyHistory the KeyHistory of the positions before each past move
 	 * @param playerTurn the color of whose turn it is about to be (if the game
 	 *                   isn't over)
 	 */
-	public EndGameCheck(ArrayList<Piece> pieces, LinkedList<Move> history, Color playerTurn) {
-		boolean hasLegalMove = false;
-		Square currSquare = new Square(); // current square
+	public EndGameCheck(ArrayList<Piece> pieces, LinkedList<Move> history, KeyHistory keyHistory, Color playerTurn) {
+		this(pieces, turnsSinceLastPawnOrCapture(history), keyHistory, playerTurn);
+	}
+
+	/**
+	 * @param pieces        the ArrayList<Piece> of pieces
+	 * @param halfMoveClock the amount of moves since the last pawn move or capture
+	 * @param keyHistory    the KeyHistory of the positions before each past move
+	 * @param playerTurn    the color of whose turn it is about to be (if the game
+	 *                      isn't over)
+	 */
+	public EndGameCheck(ArrayList<Piece> pieces, int halfMoveClock, KeyHistory keyHistory, Color playerTurn) {
+		Position position = Converter.toPosition(pieces, playerTurn);
+
 		// check all of player's pieces for a legal move
-		for (Piece p : pieces) {
-			if (p.getColor() != playerTurn) {
-				continue; // skip opponent's pieces
-			}
-			// check each column
-			for (int c = 1; c < 9; c++) {
-				// check each row
-				for (int r = 1; r < 9; r++) {
-					currSquare.setPosition(c, r);
-					if (p.hasLegalMove(currSquare, pieces)) {
-						hasLegalMove = true;
-					}
-				}
-			}
-		}
+		boolean hasLegalMove = MoveGenerator.hasLegalMove(position);
 
 		// see if this is the third time this position has occurred
-		if (hasLegalMove && amountOfRepetitions(pieces, history) >= 3) {
+		if (hasLegalMove && amountOfRepetitions(position, halfMoveClock, keyHistory) >= 3) {
 			// technically, at this point a player may CLAIM a draw, but it is not forced
 			ending = Ending.THREE_FOLD_REPETITION;
 		}
 		// no captures or pawn moves in the last 100 positions (50 moves)
-		else if (hasLegalMove && turnsSinceLastPawnOrCapture(history) >= 100) {
+		else if (hasLegalMove && halfMoveClock >= 100) {
 			// technically, at this point a player may CLAIM a draw, but it is not forced
 			ending = Ending.FIFTY_MOVE_RULE;
 		}
@@ -97,16 +96,19 @@ public class EndGameCheck {
 	 * @return true if the player's king is in check, false otherwise
 	 */
 	public static boolean inCheck(ArrayList<Piece> pieces, Color playerTurn) {
-		Square kingSquare = null;
+		long king = 0L;
 		for (Piece p : pieces) {
 			if (p.getType() == Type.KING && p.getColor() == playerTurn) {
-				kingSquare = p.getPosition();
+				king = 1L << p.getIndex();
 				break;
 			}
 		}
-		// check other player's ability to target the kingSquare
+		// check other player's ability to target the king (the occupied squares are
+		// found once for every attacker)
+		long occupied = Finder.getOccupied(pieces);
 		for (Piece p : pieces) {
-			if (p.getColor() != playerTurn && p.canSee(kingSquare, pieces)) {
+			if (p.getColor() != playerTurn && (AttackMap.getAttacks(Position.getPieceCode(p.getColor(), p.getType()),
+					p.getIndex(), occupied) & king) != 0L) {
 				return true;
 			}
 		}
@@ -120,7 +122,7 @@ public class EndGameCheck {
 	 * @param history the LinkedList of past moves
 	 * @return the amount of turns
 	 */
-	private int turnsSinceLastPawnOrCapture(LinkedList<Move> history) {
+	public static int turnsSinceLastPawnOrCapture(LinkedList<Move> history) {
 		Iterator<Move> iterator = history.descendingIterator();
 		int turns = 0;
 		Move move;
@@ -137,81 +139,15 @@ public class EndGameCheck {
 	/**
 	 * returns the amount of times this game has had this exact postion
 	 * 
-	 * @param pieces  the ArrayList<Piece> of all pieces (the current position)
-	 * @param history the LinkedList of past Moves
+	 * @param position      the current Position
+	 * @param halfMoveClock the amount of moves since the last pawn move or capture
+	 * @param keyHistory    the KeyHistory of the positions before each past move
 	 * @return the amount of exact repetitions
 	 */
-	private int amountOfRepetitions(ArrayList<Piece> pieces, LinkedList<Move> history) {
-		Iterator<Move> iterator = history.descendingIterator();
-		ArrayList<Piece> pastPieces = pieces;
-		int repetitions = 1; // this position is identical to itself
-		Move move;
-
-		while (iterator.hasNext()) {
-			move = iterator.next();
-			// pawn moves and captures ensure a different position
-			if (move.isPawnOrCapture()) {
-				break;
-			}
-			pastPieces = undoMove(pastPieces, move);
-			if (identicalBoard(pieces, pastPieces)) {
-				repetitions++;
-			}
-		}
-		return repetitions;
-	}
-
-	/**
-	 * undoes the given move
-	 * 
-	 * @param pieces the ArrayList<Piece> of all pieces
-	 * @param move   the move that is being undone
-	 * @return pastPieces, the ArrayList<Piece> of all pieces before the move
-	 */
-	private ArrayList<Piece> undoMove(ArrayList<Piece> pieces, Move move) {
-		ArrayList<Piece> pastPieces = Copier.copyBoard(pieces);
-
-		// move the moved piece back to where it came from
-		Piece movedPiece = Finder.getPieceOnSquare(move.getDestination(), pastPieces);
-		movedPiece.setPosition(move.getPiece().getPosition());
-
-		// add the captured piece
-		if (move.getCapturePiece() != null) {
-			pastPieces.add(move.getCapturePiece());
-		}
-
-		// undo castling as well
-		if (move.getRookJump() != null) {
-			// no rookJump will have a rook jump in it, so this is only recursive once
-			pastPieces = undoMove(pastPieces, move.getRookJump());
-		}
-
-		return pastPieces;
-	}
-
-	/**
-	 * determines if two boards are identical or not
-	 * 
-	 * @param pieces1 the first board being compared
-	 * @param pieces2 the second board being compared
-	 * @return true if they are the same position, false otherwise
-	 */
-	private boolean identicalBoard(ArrayList<Piece> pieces1, ArrayList<Piece> pieces2) {
-		// false if different number of pieces
-		if (pieces1.size() != pieces2.size()) {
-			return false;
-		}
-		// sort all pieces
-		Collections.sort(pieces1);
-		Collections.sort(pieces2);
-
-		for (int i = 0; i < pieces1.size(); i++) {
-			// compare all pieces
-			if (!pieces1.get(i).equals(pieces2.get(i))) {
-				return false;
-			}
-		}
-		return true;
+	private int amountOfRepetitions(Position position, int halfMoveClock, KeyHistory keyHistory) {
+		// pawn moves and captures ensure a different position, so only look back to
+		// the last one (this position is identical to itself)
+		return keyHistory.getRepetitions(position.getKey(), halfMoveClock) + 1;
 	}
 
 	/**
@@ -264,6 +200,36 @@ public class EndGameCheck {
 		return false;
 	}
 
+	/**
+	 * determines if there are enough pieces to deliver checkmate in the future,
+	 * the same way as above
+	 * 
+	 * @param position the Position being examined
+	 * @return true, if there is sufficient material. false otherwise
+	 */
+	public static boolean sufficientMaterial(Position position) {
+		int bishops;
+		boolean knights;
+
+		for (Color color : Position.COLORS) {
+			// if there's a queen, rook, or pawn, then there's enough material
+			if ((position.getPieces(color, Type.QUEEN) | position.getPieces(color, Type.ROOK)
+					| position.getPieces(color, Type.PAWN)) != 0L) {
+				return true;
+			}
+
+			// 1+ bishop & 1+ knight, OR 2 bishops
+			bishops = Long.bitCount(position.getPieces(color, Type.BISHOP));
+			knights = position.getPieces(color, Type.KNIGHT) != 0L;
+			if ((bishops >= 1 && knights) || bishops == 2) {
+				return true;
+			}
+		}
+
+		// for this program, 2 knights will count as NOT ENOUGH material
+		return false;
+	}
+
 	// getters and setters
 	public Ending getEnding() {
 		return ending;
@@ -0,0 +1,81 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         KeyHistory holds the Zobrist key of every position a game has been in,
+ *         oldest first. Keys are kept in a plain long[] so checking for
+ *         repetitions is just comparing longs
+ *
+ */
+public class KeyHistory {
+
+	private long[] keys;
+	private int size;
+
+	public KeyHistory() {
+		keys = new long[128];
+		size = 0;
+	}
+
+	/**
+	 * @param keyHistory the KeyHistory being copied
+	 */
+	public KeyHistory(KeyHistory keyHistory) {
+		keys = keyHistory.keys.clone();
+		size = keyHistory.size;
+	}
+
+	/**
+	 * adds the key of the position a move is being made from
+	 *
+	 * @param key the position's Zobrist key
+	 */
+	public void add(long key) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+		}
+		keys[size++] = key;
+	}
+
+	/**
+	 * takes off the last key that was added
+	 */
+	public void removeLast() {
+		size--;
+	}
+
+	/**
+	 * counts how many of the past positions are the same as the position after the
+	 * last key. Only positions with the same player to move are checked, and only
+	 * as far back as the last pawn move or capture
+	 *
+	 * @param key       the Zobrist key of the current position
+	 * @param halfMoves the moves since the last pawn move or capture
+	 * @return the amount of past positions with the same key
+	 */
+	public int getRepetitions(long key, int halfMoves) {
+		int repetitions = 0;
+		int oldest = Math.max(size - halfMoves, 0);
+
+		// the position two moves ago had the same player to move
+		for (int i = size - 2; i >= oldest; i -= 2) {
+			if (keys[i] == key) {
+				repetitions++;
+			}
+		}
+		return repetitions;
+	}
+
+	// getters and setters
+	public long get(int index) {
+		return keys[index];
+	}
+
+	public int size() {
+		return size;
+	}
+}
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import ai.AIMove;
 import game.helpers.Copier;
 import game.helpers.Finder;
+import game.helpers.MoveEncoder;
 import pieces.King;
 import pieces.Pawn;
 import pieces.Piece;
@@ -26,6 +27,7 @@ public class Move {
 	private Square destination; // the piece's valid destination
 	private boolean pawnOrCapture; // this move is a pawn move or a capture move
 	private Move rookJump; // an additional move (the rook moving during castle)
+	private Type promoteTo; // what the pawn promoted to (set once the move is executed)
 
 	/**
 	 * @param piece       the piece being moved
@@ -35,23 +37,31 @@ public class Move {
 	public Move(Piece piece, Square destination, ArrayList<Piece> pieces) {
 		this.piece = Copier.copyPiece(piece);
 		this.capturePiece = Copier.copyPiece(getCapturePiece(piece, destination, pieces));
-		this.destination = new Square(destination);
+		this.destination = destination;
 		pawnOrCapture = isPawnOrCaptureMove(piece, capturePiece);
 		rookJump = isRookJump(piece, destination, pieces);
 	}
 
 	/**
-	 * copies an ai.Move into this game.Move
+	 * makes the game.Move of a packed move
 	 * 
-	 * @param aiMove the ai.Move being copied
-	 * @param pieces the ArrayList<Piece> of pieces
+	 * @param move   the packed move
+	 * @param pieces the ArrayList<Piece> of pieces (before the move is made)
+	 */
+	public Move(int move, ArrayList<Piece> pieces) {
+		this(Finder.getPieceOnSquare(Position.getSquare(MoveEncoder.getFrom(move)), pieces),
+				Position.getSquare(MoveEncoder.getTo(move)), pieces);
+		promoteTo = MoveEncoder.getPromotion(move);
+	}
+
+	/**
+	 * makes the game.Move of an ai.Move
+	 * 
+	 * @param aiMove the ai.Move being played
+	 * @param pieces the ArrayList<Piece> of pieces (before the move is made)
 	 */
 	public Move(AIMove aiMove, ArrayList<Piece> pieces) {
-		piece = Copier.copyPiece(aiMove.getPiece());
-		destination = new Square(aiMove.getDestination());
-		capturePiece = Copier.copyPiece(aiMove.getCapturePiece());
-		pawnOrCapture = aiMove.isPawnOrCapture();
-		rookJump = aiMove.getRookJump();
+		this(aiMove.getMove(), pieces);
 	}
 
 	/**
@@ -111,7 +121,7 @@ public class Move {
 			Piece rook = ((King) piece).getCastleRook(destination, pieces);
 
 			int rookXDestination = (rook.getPosition().getX() == 1) ? 4 : 6;
-			Square rookDestination = new Square(rookXDestination, rook.getPosition().getY());
+			Square rookDestination = Square.get(rookXDestination, rook.getPosition().getY());
 
 			return new Move(rook, rookDestination, pieces);
 		}
@@ -151,6 +161,14 @@ public class Move {
 		return rookJump;
 	}
 
+	public Type getPromoteTo() {
+		return promoteTo;
+	}
+
+	public void setPromoteTo(Type promoteTo) {
+		this.promoteTo = promoteTo;
+	}
+
 	@Override
 	public String toString() {
 		return piece.getType() + " to " + destination;
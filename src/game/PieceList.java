@@ -0,0 +1,143 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import pieces.Piece;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         PieceList is an ArrayList<Piece> that also remembers which piece is
+ *         on each square (a mailbox), so finding the piece on a square doesn't
+ *         search the list
+ *
+ *         - adding, setting, and removing pieces keeps the mailbox up to date.
+ *         Pieces that move while they're in the list have to be moved with
+ *         move (MoveExecuter does this)
+ *
+ *         - the list's order is still the order the pieces are analyzed in,
+ *         sorting it doesn't change the mailbox
+ *
+ */
+public class PieceList extends ArrayList<Piece> {
+
+	private static final long serialVersionUID = 1L;
+
+	private Piece[] board; // the piece on each square (null if there is none)
+	private long occupied; // the bitboard of occupied squares
+
+	public PieceList() {
+		board = new Piece[64];
+	}
+
+	/**
+	 * moves a piece in the list to another square
+	 *
+	 * @param piece       the piece being moved
+	 * @param destination the square it's moving to
+	 */
+	public void move(Piece piece, Square destination) {
+		lift(piece);
+		piece.setPosition(destination);
+		place(piece);
+	}
+
+	/**
+	 * @param square the square being examined
+	 * @return the piece on the square, null if there is none
+	 */
+	public Piece getPiece(Square square) {
+		if (!square.isOnBoard()) {
+			return null;
+		}
+		return board[square.getIndex()];
+	}
+
+	@Override
+	public boolean add(Piece piece) {
+		place(piece);
+		return super.add(piece);
+	}
+
+	@Override
+	public void add(int index, Piece piece) {
+		place(piece);
+		super.add(index, piece);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Piece> pieces) {
+		for (Piece p : pieces) {
+			place(p);
+		}
+		return super.addAll(pieces);
+	}
+
+	@Override
+	public Piece set(int index, Piece piece) {
+		Piece old = super.set(index, piece);
+		lift(old);
+		place(piece);
+		return old;
+	}
+
+	@Override
+	public Piece remove(int index) {
+		Piece old = super.remove(index);
+		lift(old);
+		return old;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		board = new Piece[64];
+		occupied = 0L;
+	}
+
+	/**
+	 * HELPER
+	 * METHODS---------------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * puts a piece in the mailbox on its square
+	 *
+	 * @param piece the piece
+	 */
+	private void place(Piece piece) {
+		int square = piece.getIndex();
+		board[square] = piece;
+		occupied |= 1L << square;
+	}
+
+	/**
+	 * takes a piece out of the mailbox, if it's still the piece on its square
+	 *
+	 * @param piece the piece
+	 */
+	private void lift(Piece piece) {
+		int square = piece.getIndex();
+		if (board[square] == piece) {
+			board[square] = null;
+			occupied &= ~(1L << square);
+		}
+	}
+
+	// getters and setters
+	public long getOccupied() {
+		return occupied;
+	}
+}
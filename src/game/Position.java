@@ -0,0 +1,471 @@
+package game;
+
+import java.util.Arrays;
+
+import game.helpers.MoveEncoder;
+import game.helpers.Zobrist;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ * @author John Hoffmann
+ *
+ *         Position is a compact bitboard version of the board. Every color and
+ *         type of piece gets its own 64-bit long, where a bit is set if that
+ *         kind of piece is on the square with that index (a1 = 0, b1 = 1, ...
+ *         h8 = 63)
+ *
+ *         Position also keeps track of whose turn it is, the castling rights,
+ *         the en passant square, and the move counters
+ *
+ *         Every change also updates the position's Zobrist key, so positions can
+ *         be compared with a single long
+ *
+ */
+public class Position {
+
+	// castling rights
+	public static final int WHITE_KING_SIDE = 1;
+	public static final int WHITE_QUEEN_SIDE = 2;
+	public static final int BLACK_KING_SIDE = 4;
+	public static final int BLACK_QUEEN_SIDE = 8;
+	public static final int ALL_CASTLING = 15;
+
+	public static final int NO_SQUARE = -1; // there is no en passant square
+	public static final int EMPTY = -1; // there is no piece on the square
+
+	// easy access to enum values
+	public static final Color[] COLORS = Color.values();
+	public static final Type[] TYPES = Type.values();
+
+	private long[] pieceBoards; // one bitboard per color and type (see getPieceCode)
+	private long[] colorBoards; // one bitboard per color
+	private long occupied; // every piece on the board
+	private int[] board; // the piece code on each square, EMPTY otherwise
+
+	private Color sideToMove; // the color of whose turn it is
+	private int castling; // the castling rights that are left
+	private int enPassant; // the square a pawn can capture onto through en passant
+	private int halfMoveClock; // moves since the last pawn move or capture
+	private int fullMoveNumber; // starts at 1, goes up after black moves
+	private long key; // the Zobrist key of everything above except the move counters
+
+	// what makeMove changed, so unmakeMove can put it back (one entry per move)
+	private int[] capturedStack;
+	private int[] castlingStack;
+	private int[] enPassantStack;
+	private int[] halfMoveStack;
+	private long[] keyStack;
+	private int ply; // the amount of moves on the stacks
+
+	/**
+	 * creates an empty position with white to move
+	 */
+	public Position() {
+		pieceBoards = new long[COLORS.length * TYPES.length];
+		colorBoards = new long[COLORS.length];
+		occupied = 0L;
+		board = new int[64];
+		for (int i = 0; i < 64; i++) {
+			board[i] = EMPTY;
+		}
+		sideToMove = Color.WHITE;
+		castling = 0;
+		enPassant = NO_SQUARE;
+		halfMoveClock = 0;
+		fullMoveNumber = 1;
+		key = 0L;
+		initializeStacks(64);
+	}
+
+	/**
+	 * @param position the position being copied
+	 */
+	public Position(Position position) {
+		pieceBoards = position.pieceBoards.clone();
+		colorBoards = position.colorBoards.clone();
+		occupied = position.occupied;
+		board = position.board.clone();
+		sideToMove = position.sideToMove;
+		castling = position.castling;
+		enPassant = position.enPassant;
+		halfMoveClock = position.halfMoveClock;
+		fullMoveNumber = position.fullMoveNumber;
+		key = position.key;
+		initializeStacks(64);
+	}
+
+	/**
+	 * puts a piece on an empty square
+	 *
+	 * @param code  the piece code (see getPieceCode)
+	 * @param index the square's index
+	 */
+	public void addPiece(int code, int index) {
+		long bit = 1L << index;
+		pieceBoards[code] |= bit;
+		colorBoards[getColorCode(code)] |= bit;
+		occupied |= bit;
+		board[index] = code;
+		key ^= Zobrist.PIECES[code][index];
+	}
+
+	/**
+	 * takes the piece off of the given square
+	 *
+	 * @param index the square's index
+	 * @return the piece code of the removed piece, EMPTY if there was none
+	 */
+	public int removePiece(int index) {
+		int code = board[index];
+		if (code == EMPTY) {
+			return EMPTY;
+		}
+		long bit = ~(1L << index);
+		pieceBoards[code] &= bit;
+		colorBoards[getColorCode(code)] &= bit;
+		occupied &= bit;
+		board[index] = EMPTY;
+		key ^= Zobrist.PIECES[code][index];
+		return code;
+	}
+
+	/**
+	 * plays a legal move on this position. Everything the move changes is saved so
+	 * that unmakeMove can undo it without any copying
+	 *
+	 * @param move the packed move (see MoveEncoder)
+	 */
+	public void makeMove(int move) {
+		int from = MoveEncoder.getFrom(move);
+		int to = MoveEncoder.getTo(move);
+		Color us = sideToMove;
+
+		if (ply == capturedStack.length) {
+			growStacks();
+		}
+		castlingStack[ply] = castling;
+		enPassantStack[ply] = enPassant;
+		halfMoveStack[ply] = halfMoveClock;
+		keyStack[ply] = key;
+
+		int code = removePiece(from);
+		int captured;
+		// the pawn taken through en passant is behind the destination
+		if (MoveEncoder.isEnPassant(move)) {
+			captured = removePiece(to + (us == Color.WHITE ? -8 : 8));
+		} else {
+			captured = removePiece(to);
+		}
+		capturedStack[ply] = captured;
+		ply++;
+
+		// the rook jumps over the king when castling
+		if (MoveEncoder.isCastle(move)) {
+			addPiece(removePiece(MoveEncoder.getRookFrom(move)), MoveEncoder.getRookTo(move));
+		}
+		if (MoveEncoder.isPromotion(move)) {
+			code = getPieceCode(us, MoveEncoder.getPromotion(move));
+		}
+		addPiece(code, to);
+
+		// moving the king or a rook, or capturing a rook, loses castling rights
+		int rights = castling & ~(getCastlingRight(from) | getCastlingRight(to));
+		if (getTypeOf(code) == Type.KING) {
+			rights &= us == Color.WHITE ? BLACK_KING_SIDE | BLACK_QUEEN_SIDE : WHITE_KING_SIDE | WHITE_QUEEN_SIDE;
+		}
+		setCastling(rights);
+		setEnPassant(MoveEncoder.isDoublePush(move) ? (from + to) / 2 : NO_SQUARE);
+
+		// update the move counters
+		halfMoveClock = (getTypeOf(code) == Type.PAWN || captured != EMPTY) ? 0 : halfMoveClock + 1;
+		if (us == Color.BLACK) {
+			fullMoveNumber++;
+		}
+		setSideToMove(Color.getOppColor(us));
+	}
+
+	/**
+	 * takes back the last move made with makeMove
+	 *
+	 * @param move the packed move that was made last
+	 */
+	public void unmakeMove(int move) {
+		int from = MoveEncoder.getFrom(move);
+		int to = MoveEncoder.getTo(move);
+		Color us = Color.getOppColor(sideToMove);
+		ply--;
+
+		int code = removePiece(to);
+		if (MoveEncoder.isPromotion(move)) {
+			code = getPieceCode(us, Type.PAWN);
+		}
+		addPiece(code, from);
+
+		if (MoveEncoder.isCastle(move)) {
+			addPiece(removePiece(MoveEncoder.getRookTo(move)), MoveEncoder.getRookFrom(move));
+		}
+		if (capturedStack[ply] != EMPTY) {
+			addPiece(capturedStack[ply], MoveEncoder.isEnPassant(move) ? to + (us == Color.WHITE ? -8 : 8) : to);
+		}
+
+		castling = castlingStack[ply];
+		enPassant = enPassantStack[ply];
+		halfMoveClock = halfMoveStack[ply];
+		if (us == Color.BLACK) {
+			fullMoveNumber--;
+		}
+		sideToMove = us;
+		key = keyStack[ply];
+	}
+
+	/**
+	 * @return the piece code captured by the last move made, EMPTY if none
+	 */
+	public int getLastCaptured() {
+		return ply == 0 ? EMPTY : capturedStack[ply - 1];
+	}
+
+	/**
+	 * gets the index of the given color's king
+	 *
+	 * @param color the king's color
+	 * @return the index of the king's square, NO_SQUARE if there is no king
+	 */
+	public int getKingIndex(Color color) {
+		long king = pieceBoards[getPieceCode(color, Type.KING)];
+		return king == 0L ? NO_SQUARE : Long.numberOfTrailingZeros(king);
+	}
+
+	/**
+	 * STATIC
+	 * HELPERS-------------------------------------------------------------------
+	 */
+
+	/**
+	 * returns the code used to index a color and type of piece
+	 *
+	 * @param color the piece's color
+	 * @param type  the piece's type
+	 * @return (color * 6) + type
+	 */
+	public static int getPieceCode(Color color, Type type) {
+		return color.ordinal() * TYPES.length + type.ordinal();
+	}
+
+	/**
+	 * @param code the piece code
+	 * @return the ordinal of the code's color
+	 */
+	public static int getColorCode(int code) {
+		return code / TYPES.length;
+	}
+
+	/**
+	 * @param code the piece code
+	 * @return the color of the piece code
+	 */
+	public static Color getColorOf(int code) {
+		return COLORS[code / TYPES.length];
+	}
+
+	/**
+	 * @param code the piece code
+	 * @return the type of the piece code
+	 */
+	public static Type getTypeOf(int code) {
+		return TYPES[code % TYPES.length];
+	}
+
+	/**
+	 * returns the index for the given coordinates
+	 *
+	 * @param x the column (1 - 8)
+	 * @param y the row (1 - 8)
+	 * @return the index (0 - 63)
+	 */
+	public static int getIndex(int x, int y) {
+		return ((y - 1) << 3) + (x - 1);
+	}
+
+	/**
+	 * returns the index for the given square
+	 *
+	 * @param square the square
+	 * @return the index (0 - 63)
+	 */
+	public static int getIndex(Square square) {
+		return square.getIndex();
+	}
+
+	/**
+	 * @param index the square's index
+	 * @return the column (1 - 8)
+	 */
+	public static int getX(int index) {
+		return (index & 7) + 1;
+	}
+
+	/**
+	 * @param index the square's index
+	 * @return the row (1 - 8)
+	 */
+	public static int getY(int index) {
+		return (index >>> 3) + 1;
+	}
+
+	/**
+	 * returns the castling right that is lost when a piece leaves or lands on the
+	 * given square (the rooks' starting corners)
+	 *
+	 * @param index the square's index
+	 * @return the castling right, 0 if the square isn't a corner
+	 */
+	public static int getCastlingRight(int index) {
+		switch (index) {
+		case 0:
+			return WHITE_QUEEN_SIDE;
+		case 7:
+			return WHITE_KING_SIDE;
+		case 56:
+			return BLACK_QUEEN_SIDE;
+		case 63:
+			return BLACK_KING_SIDE;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @param index the square's index
+	 * @return the Square with the same coordinates
+	 */
+	public static Square getSquare(int index) {
+		return Square.get(index);
+	}
+
+	/**
+	 * creates the stacks used by makeMove and unmakeMove
+	 *
+	 * @param size the amount of moves the stacks can hold
+	 */
+	private void initializeStacks(int size) {
+		capturedStack = new int[size];
+		castlingStack = new int[size];
+		enPassantStack = new int[size];
+		halfMoveStack = new int[size];
+		keyStack = new long[size];
+		ply = 0;
+	}
+
+	/**
+	 * doubles the size of the stacks (only happens in very long games)
+	 */
+	private void growStacks() {
+		int size = capturedStack.length * 2;
+		capturedStack = Arrays.copyOf(capturedStack, size);
+		castlingStack = Arrays.copyOf(castlingStack, size);
+		enPassantStack = Arrays.copyOf(enPassantStack, size);
+		halfMoveStack = Arrays.copyOf(halfMoveStack, size);
+		keyStack = Arrays.copyOf(keyStack, size);
+	}
+
+	// getters and setters
+	public int getPiece(int index) {
+		return board[index];
+	}
+
+	public Type getType(int index) {
+		return board[index] == EMPTY ? null : getTypeOf(board[index]);
+	}
+
+	public Color getColor(int index) {
+		return board[index] == EMPTY ? null : getColorOf(board[index]);
+	}
+
+	public long getPieces(Color color, Type type) {
+		return pieceBoards[getPieceCode(color, type)];
+	}
+
+	public long getPieces(int code) {
+		return pieceBoards[code];
+	}
+
+	public long getPieces(Color color) {
+		return colorBoards[color.ordinal()];
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	public Color getSideToMove() {
+		return sideToMove;
+	}
+
+	public void setSideToMove(Color sideToMove) {
+		if (this.sideToMove != sideToMove) {
+			key ^= Zobrist.BLACK_TO_MOVE;
+		}
+		this.sideToMove = sideToMove;
+	}
+
+	public int getCastling() {
+		return castling;
+	}
+
+	public void setCastling(int castling) {
+		key ^= Zobrist.CASTLING[this.castling] ^ Zobrist.CASTLING[castling];
+		this.castling = castling;
+	}
+
+	public int getEnPassant() {
+		return enPassant;
+	}
+
+	public void setEnPassant(int enPassant) {
+		key ^= Zobrist.getEnPassantKey(this.enPassant) ^ Zobrist.getEnPassantKey(enPassant);
+		this.enPassant = enPassant;
+	}
+
+	public int getHalfMoveClock() {
+		return halfMoveClock;
+	}
+
+	public void setHalfMoveClock(int halfMoveClock) {
+		this.halfMoveClock = halfMoveClock;
+	}
+
+	public long getKey() {
+		return key;
+	}
+
+	public int getFullMoveNumber() {
+		return fullMoveNumber;
+	}
+
+	public void setFullMoveNumber(int fullMoveNumber) {
+		this.fullMoveNumber = fullMoveNumber;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		int code;
+		for (int y = 8; y > 0; y--) {
+			for (int x = 1; x < 9; x++) {
+				code = board[getIndex(x, y)];
+				if (code == EMPTY) {
+					builder.append(". ");
+				} else {
+					char letter = getTypeOf(code) == Type.KNIGHT ? 'n' : getTypeOf(code).name.toLowerCase().charAt(0);
+					builder.append(getColorOf(code) == Color.WHITE ? Character.toUpperCase(letter) : letter);
+					builder.append(' ');
+				}
+			}
+			builder.append(y).append('\n');
+		}
+		builder.append("a b c d e f g h\n");
+		return builder.toString();
+	}
+}
@@ -8,31 +8,73 @@ import pieces.Piece.Color;
  * 
  *         This class is used to represent squares on the board, a single x and
  *         y coordinate
+ * 
+ *         - squares never change, and there is only one of each. They're taken
+ *         from a table with get, so finding a square never makes a new one
+ * 
+ *         - the table also holds the squares just off the board (as far as a
+ *         knight can jump), which have Position.NO_SQUARE as their index
  */
-public class Square implements Comparable<Square> {
-	private int x; // the x coordinate position (1 - 8) shown as (a - h)
-	private int y; // the y coordinate position (1 - 8)
-
-	public Square() {
-		x = 0;
-		y = 0;
+public final class Square implements Comparable<Square> {
+
+	// the coordinates kept in the table (the board, plus two squares past each edge)
+	private static final int MIN = -1;
+	private static final int MAX = 10;
+	private static final int SIZE = MAX - MIN + 1;
+
+	private static final Square[] TABLE = new Square[SIZE * SIZE]; // every square in the table
+	private static final Square[] BOARD = new Square[64]; // the squares on the board, by index
+
+	static {
+		Square square;
+		for (int y = MIN; y <= MAX; y++) {
+			for (int x = MIN; x <= MAX; x++) {
+				square = new Square(x, y);
+				TABLE[(y - MIN) * SIZE + (x - MIN)] = square;
+				if (square.isOnBoard()) {
+					BOARD[square.index] = square;
+				}
+			}
+		}
 	}
 
+	private final int x; // the x coordinate position (1 - 8) shown as (a - h)
+	private final int y; // the y coordinate position (1 - 8)
+	private final int index; // the square's index (0 - 63), Position.NO_SQUARE if it's off the board
+
 	/**
 	 * @param x the column (a - h)
 	 * @param y the row (1 - 8)
 	 */
-	public Square(int x, int y) {
+	private Square(int x, int y) {
 		this.x = x;
 		this.y = y;
+		index = x >= 1 && x <= 8 && y >= 1 && y <= 8 ? Position.getIndex(x, y) : Position.NO_SQUARE;
 	}
 
 	/**
-	 * @param square the square being copied
+	 * returns the square with the given coordinates
+	 * 
+	 * @param x the column (a - h)
+	 * @param y the row (1 - 8)
+	 * @return the square from the table (a new square only if it's far off the
+	 *         board)
 	 */
-	public Square(Square square) {
-		x = square.getX();
-		y = square.getY();
+	public static Square get(int x, int y) {
+		if (x < MIN || x > MAX || y < MIN || y > MAX) {
+			return new Square(x, y);
+		}
+		return TABLE[(y - MIN) * SIZE + (x - MIN)];
+	}
+
+	/**
+	 * returns the square with the given index
+	 * 
+	 * @param index the square's index (0 - 63)
+	 * @return the square on the board
+	 */
+	public static Square get(int index) {
+		return BOARD[index];
 	}
 
 	/**
@@ -70,31 +112,13 @@ public class Square implements Comparable<Square> {
 	}
 
 	/**
-	 * getValue returns a unique value for the square (used in compareTo and equals
-	 * methods)
-	 * 
-	 * @return (x * 10) + y
+	 * @return true if the square is on the board
 	 */
-	public int getValue() {
-		return (x * 10) + y;
+	public boolean isOnBoard() {
+		return index != Position.NO_SQUARE;
 	}
 
 	// getters and setters
-	public void setPosition(int x, int y) {
-		this.x = x;
-		this.y = y;
-	}
-
-	public void setPosition(Square square) {
-		x = square.getX();
-		y = square.getY();
-	}
-
-	public void setPosition(gui.nodes.Square square) {
-		x = square.getC();
-		y = square.getR();
-	}
-
 	public int getX() {
 		return x;
 	}
@@ -103,16 +127,20 @@ public class Square implements Comparable<Square> {
 		return y;
 	}
 
+	public int getIndex() {
+		return index;
+	}
+
 	@Override
 	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
 		if (!(other instanceof Square)) {
 			return false;
 		}
 		Square o = (Square) other;
-		if (getValue() == o.getValue()) {
-			return true;
-		}
-		return false;
+		return x == o.x && y == o.y;
 	}
 
 	/**
@@ -123,13 +151,17 @@ public class Square implements Comparable<Square> {
 	 * @return true if same square, false otherwise
 	 */
 	public boolean equals(int x, int y) {
-		Square square = new Square(x, y);
-		return equals(square);
+		return this.x == x && this.y == y;
+	}
+
+	@Override
+	public int hashCode() {
+		return x * 31 + y;
 	}
 
 	@Override
 	public int compareTo(Square square) {
-		return getValue() - square.getValue();
+		return x != square.x ? x - square.x : y - square.y;
 	}
 
 	@Override
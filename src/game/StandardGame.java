@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import ai.AI;
 import game.EndGameCheck.Ending;
+import game.helpers.Converter;
+import game.helpers.FEN;
 import game.helpers.FXCommander;
 import game.helpers.MoveExecuter;
 import game.helpers.Printer;
@@ -24,6 +26,9 @@ import pieces.Rook;
  *         StandardGame handles a standard chess game by starting it and trading
  *         turns
  * 
+ *         - a game can also be played between two AIs without a GUI (for
+ *         matches between AIs). An Adjudicator can end these games early
+ * 
  */
 public class StandardGame {
 	// easy access to colors
@@ -32,8 +37,13 @@ public class StandardGame {
 
 	private ChessDriver gui;
 	private ArrayList<Piece> pieces;
+	private Position position; // bitboard version of pieces
 	private LinkedList<Move> history;
+	private KeyHistory keyHistory; // the key of the position before each move in history
 	private AI ai;
+	private AI[] players; // the AI playing each color (by ordinal), null for a person
+	private Adjudicator adjudicator; // can end the game early, or null
+	private Color playerTurn;
 	private Ending ending;
 
 	/**
@@ -41,39 +51,70 @@ public class StandardGame {
 	 */
 	public StandardGame(ChessDriver gui) {
 		this.gui = gui;
-		pieces = new ArrayList<Piece>();
+		pieces = new PieceList();
 		history = new LinkedList<Move>();
+		keyHistory = new KeyHistory();
 		ai = new AI();
+		players = new AI[2];
 		ending = Ending.NOT_OVER;
 	}
 
+	/**
+	 * creates a game between two AIs that is played without a GUI
+	 * 
+	 * @param white the initialized AI playing white
+	 * @param black the initialized AI playing black
+	 * @param fen   the FEN the game starts from, null for a new game
+	 */
+	public StandardGame(AI white, AI black, String fen) {
+		this((ChessDriver) null);
+		ai = white;
+		players[WHITE.ordinal()] = white;
+		players[BLACK.ordinal()] = black;
+		playerTurn = setUpBoard(fen);
+	}
+
 	/**
 	 * starts the game
 	 */
 	public void startGame() {
-		setStartingPositions(pieces);
-		FXCommander.addStartingPieces(pieces, gui);
-
-		Color playerTurn = WHITE;
-		Move move;
-		Turn turn;
-		EndGameCheck endGameCheck;
-
 		// wait for a play button to be pressed
 		waitForGUI(gui);
 
+		// set up the board
+		playerTurn = setUpBoard(gui.getCommunication().getStartingFEN());
+		FXCommander.addStartingPieces(pieces, gui);
+
 		// initialize the ai
 		if (gui.getCommunication().isPlayingAI()) {
+			ai.setThreads(gui.getCommunication().getThreads());
 			ai.initialize(Color.getOppColor(gui.getCommunication().getPlayAs()),
 					gui.getCommunication().getDifficulty());
+			players[ai.getColor().ordinal()] = ai;
 		}
 
-		// take turns moving pieces
+		playGame();
+	}
+
+	/**
+	 * takes turns moving pieces until the game is over
+	 */
+	public void playGame() {
+		AI player;
+		Move move;
+		Turn turn;
+		EndGameCheck endGameCheck;
+
 		do {
+			player = players[playerTurn.ordinal()];
+
 			// computer turn
-			if (playerTurn == ai.getColor()) {
-				move = new Move(ai.makeMove(pieces, history), pieces);
-				Printer.printBestThreeMoves(ai);
+			if (player != null) {
+				player.clearStop();
+				move = new Move(player.makeMove(pieces, position, keyHistory), pieces);
+				if (gui != null) {
+					Printer.printBestThreeMoves(player);
+				}
 			}
 			// player turn
 			else {
@@ -83,9 +124,18 @@ public class StandardGame {
 
 			// add the move to the game's history
 			history.add(move);
+			keyHistory.add(position.getKey());
 
 			// execute the move
-			MoveExecuter.movePiece(move, pieces, ai, gui);
+			if (gui != null) {
+				MoveExecuter.movePiece(move, pieces, ai, gui);
+			} else {
+				MoveExecuter.testMove(move, pieces);
+			}
+			MoveExecuter.movePiece(move, position);
+			if (gui != null) {
+				System.out.println("FEN: " + getFEN());
+			}
 
 			// switch player turns
 			playerTurn = (playerTurn == WHITE) ? BLACK : WHITE;
@@ -94,8 +144,12 @@ public class StandardGame {
 			clearEnPassant(playerTurn, pieces);
 
 			// see if the game is over
-			endGameCheck = new EndGameCheck(pieces, history, playerTurn);
+			// the position's clock includes the moves before a FEN the game started from
+			endGameCheck = new EndGameCheck(pieces, position.getHalfMoveClock(), keyHistory, playerTurn);
 			ending = endGameCheck.getEnding();
+			if (ending == Ending.NOT_OVER && adjudicator != null) {
+				ending = adjudicator.adjudicate(position, history.size());
+			}
 
 		} while (ending == Ending.NOT_OVER);
 	}
@@ -113,6 +167,28 @@ public class StandardGame {
 		}
 	}
 
+	/**
+	 * sets up the pieces and position from the given FEN, or the starting position
+	 * if there is no FEN (or it can't be read)
+	 * 
+	 * @param fen the FEN the game starts from, null or blank for a new game
+	 * @return the color of whose turn it is
+	 */
+	private Color setUpBoard(String fen) {
+		if (fen != null && !fen.isBlank()) {
+			try {
+				position = FEN.toPosition(fen);
+				pieces.addAll(Converter.toPieces(position));
+				return position.getSideToMove();
+			} catch (IllegalArgumentException e) {
+				System.out.println("Couldn't read the FEN, starting a new game instead. " + e.getMessage());
+			}
+		}
+		setStartingPositions(pieces);
+		position = Converter.toPosition(pieces, WHITE);
+		return WHITE;
+	}
+
 	/**
 	 * creates all starting pieces and adds them to the given ArrayList<Piece>
 	 * 
@@ -164,6 +240,25 @@ public class StandardGame {
 		return ending;
 	}
 
+	/**
+	 * @return the color that won (the player to move lost by checkmate or
+	 *         resignation), null if the game was drawn or isn't over
+	 */
+	public Color getWinner() {
+		if (ending == Ending.NOT_OVER || ending.isDraw) {
+			return null;
+		}
+		return Color.getOppColor(playerTurn);
+	}
+
+	public Color getPlayerTurn() {
+		return playerTurn;
+	}
+
+	public void setAdjudicator(Adjudicator adjudicator) {
+		this.adjudicator = adjudicator;
+	}
+
 	public void setEnding(Ending ending) {
 		this.ending = ending;
 	}
@@ -172,8 +267,28 @@ public class StandardGame {
 		return pieces;
 	}
 
+	public Position getPosition() {
+		return position;
+	}
+
+	public AI getAI() {
+		return ai;
+	}
+
 	public LinkedList<Move> getHistory() {
 		return history;
 	}
 
+	public KeyHistory getKeyHistory() {
+		return keyHistory;
+	}
+
+	/**
+	 * @return the FEN of the game's current position, so the game can be started
+	 *         again from here
+	 */
+	public String getFEN() {
+		return FEN.toFEN(position);
+	}
+
 }
\ No newline at end of file
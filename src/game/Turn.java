@@ -3,12 +3,14 @@ package game;
 
 import java.util.ArrayList;
 
+import game.helpers.Converter;
 import game.helpers.FXCommander;
 import game.helpers.Finder;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
 import gui.ChessDriver;
 import pieces.Piece;
 import pieces.Piece.Color;
-import pieces.Piece.Type;
 
 /**
  * 
@@ -20,6 +22,8 @@ import pieces.Piece.Type;
 public class Turn {
 
 	private Move move;
+	private int[] legalMoves; // every legal move the player has (packed)
+	private int legalMoveCount;
 
 	/**
 	 * @param pieces      the ArrayList<Piece> of all pieces
@@ -31,12 +35,18 @@ public class Turn {
 		Piece currPiece = null;
 		Square destination = null;
 
+		// the pieces don't move during a turn, so the legal moves only need to be found
+		// once
+		Position position = Converter.toPosition(pieces, playerColor);
+		legalMoves = new int[MoveGenerator.MAX_MOVES];
+		legalMoveCount = MoveGenerator.getLegalMoves(position, legalMoves);
+
 		do {
 			FXCommander.clearLegalMoveEffects(gui);
 			// add legal move effects if there is a piece selected
 			if (currPiece != null) {
-				FXCommander.addLegalMoveEffects(getAllLegalMoves(pieces, currPiece), getAllLegalTakes(pieces, currPiece),
-						gui);
+				FXCommander.addLegalMoveEffects(getAllLegalMoves(position, currPiece),
+						getAllLegalTakes(position, currPiece), gui);
 			}
 
 			// receive a new square as input
@@ -52,7 +62,7 @@ public class Turn {
 				currPiece = pieceOnSquare;
 			}
 			// get destination once a piece is chosen and can make it to selected square
-			else if (currPiece != null && currPiece.hasLegalMove(currSquare, pieces)) {
+			else if (currPiece != null && hasLegalMove(currPiece, currSquare)) {
 				destination = currSquare;
 			}
 			// deselect the piece
@@ -70,7 +80,7 @@ public class Turn {
 	 * @return the square that the user clicks
 	 */
 	private Square getValidSquare(ChessDriver gui) {
-		Square square = new Square();
+		Square square;
 		do {
 			try {
 				synchronized (gui.getCommunication()) {
@@ -84,32 +94,42 @@ public class Turn {
 		return square;
 	}
 
+	/**
+	 * determines if the piece has a legal move to the given square
+	 * 
+	 * @param currPiece   the selected piece
+	 * @param destination the square the piece is trying to move to
+	 * @return true if the move is legal, false otherwise
+	 */
+	private boolean hasLegalMove(Piece currPiece, Square destination) {
+		int from = currPiece.getIndex();
+		int to = Position.getIndex(destination);
+		for (int i = 0; i < legalMoveCount; i++) {
+			if (MoveEncoder.getFrom(legalMoves[i]) == from && MoveEncoder.getTo(legalMoves[i]) == to) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * gets all of the positions the piece can capture on
 	 * 
-	 * @param pieces the ArrayList<Piece> of all pieces
-	 * @return an ArrayList<Piece> of all square the piece can take to
+	 * @param position  the Position of the board
+	 * @param currPiece the selected piece
+	 * @return an ArrayList<Square> of all square the piece can take to
 	 */
-	private ArrayList<Square> getAllLegalTakes(ArrayList<Piece> pieces, Piece currPiece) {
-		boolean hasLegalMove;
-		Square currSquare = new Square();
+	private ArrayList<Square> getAllLegalTakes(Position position, Piece currPiece) {
 		ArrayList<Square> allLegalTakes = new ArrayList<Square>();
-		// cycle through all rows
-		for (int r = 1; r < 9; r++) {
-			// cycle through all columns
-			for (int c = 1; c < 9; c++) {
-				currSquare.setPosition(c, r);
-				hasLegalMove = currPiece.hasLegalMove(currSquare, pieces);
-				// add all legal captures to the list
-				if (hasLegalMove && Finder.isPieceOnSquare(currSquare, pieces)) {
-					allLegalTakes.add(new Square(c, r));
-				}
-				// in enPassant, pawns don't take on an occupied square, however, pawns can only
-				// capture diagonally (the x coordinate will be different)
-				else if (hasLegalMove && currPiece.getType() == Type.PAWN
-						&& currPiece.getPosition().getX() != currSquare.getX()) {
-					allLegalTakes.add(new Square(c, r));
-				}
+		int from = currPiece.getIndex();
+		int to;
+		for (int i = 0; i < legalMoveCount; i++) {
+			to = MoveEncoder.getTo(legalMoves[i]);
+			// in enPassant, pawns don't take on an occupied square
+			if (MoveEncoder.getFrom(legalMoves[i]) == from
+					&& (position.getPiece(to) != Position.EMPTY || MoveEncoder.isEnPassant(legalMoves[i]))
+					&& !allLegalTakes.contains(Position.getSquare(to))) {
+				allLegalTakes.add(Position.getSquare(to));
 			}
 		}
 		return allLegalTakes;
@@ -120,23 +140,23 @@ public class Turn {
 	 * 
 	 * the array will also include the piece's position since this is for the GUI
 	 * 
-	 * @param pieces the ArrayList<Piece> of all pieces
-	 * @return an ArrayList<Piece> of all positions the piece can move to without capturing
+	 * @param position  the Position of the board
+	 * @param currPiece the selected piece
+	 * @return an ArrayList<Square> of all positions the piece can move to without
+	 *         capturing
 	 */
-	private ArrayList<Square> getAllLegalMoves(ArrayList<Piece> pieces, Piece currPiece) {
-		Square currSquare = new Square();
+	private ArrayList<Square> getAllLegalMoves(Position position, Piece currPiece) {
 		ArrayList<Square> allLegalMoves = new ArrayList<Square>();
+		int from = currPiece.getIndex();
+		int to;
 		// add the current piece's position first
 		allLegalMoves.add(currPiece.getPosition());
-		// cycle through all rows
-		for (int r = 1; r < 9; r++) {
-			// cycle through all columns
-			for (int c = 1; c < 9; c++) {
-				currSquare.setPosition(c, r);
-				// add all legal moves to the list (not including capture moves)
-				if (currPiece.hasLegalMove(currSquare, pieces) && !Finder.isPieceOnSquare(currSquare, pieces)) {
-					allLegalMoves.add(new Square(c, r));
-				}
+		for (int i = 0; i < legalMoveCount; i++) {
+			to = MoveEncoder.getTo(legalMoves[i]);
+			// promotions show up once per piece type, but only need one square
+			if (MoveEncoder.getFrom(legalMoves[i]) == from && position.getPiece(to) == Position.EMPTY
+					&& !MoveEncoder.isEnPassant(legalMoves[i]) && !allLegalMoves.contains(Position.getSquare(to))) {
+				allLegalMoves.add(Position.getSquare(to));
 			}
 		}
 		return allLegalMoves;
@@ -0,0 +1,318 @@
+package game.helpers;
+
+import game.Square;
+import pieces.Piece.Color;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Bitboards holds the attack tables that are built once and shared by
+ *         everything that works with a Position
+ *
+ *         - jump tables for knights, kings, and pawn captures
+ *
+ *         - rays in all 8 directions for the sliding pieces
+ *
+ *         - magic tables for rooks and bishops. The pieces that block a slider
+ *         are multiplied by a magic number, and the top bits of the result
+ *         index a table of attacks made for those blockers, so a slider's
+ *         attacks are found in one lookup instead of walking its rays
+ *
+ *         - the squares between and the full line through any two squares
+ *
+ */
+public final class Bitboards {
+
+	// ray directions (the first four go up the board, the last four go down)
+	private static final int NORTH = 0, EAST = 1, NORTH_EAST = 2, NORTH_WEST = 3;
+	private static final int SOUTH = 4, WEST = 5, SOUTH_WEST = 6, SOUTH_EAST = 7;
+	private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { -1, 1 }, { 0, -1 }, { -1, 0 },
+			{ -1, -1 }, { 1, -1 } };
+
+	public static final long[] KNIGHT_ATTACKS = new long[64];
+	public static final long[] KING_ATTACKS = new long[64];
+	public static final long[][] PAWN_ATTACKS = new long[2][64]; // [color][square]
+
+	private static final long[][] RAYS = new long[8][64]; // [direction][square]
+	private static final long[][] BETWEEN = new long[64][64]; // squares strictly between two squares
+	private static final long[][] LINE = new long[64][64]; // the whole line through two squares
+
+	// magic tables (each square's attacks start at its offset in the shared table)
+	private static final long[] ROOK_MASKS = new long[64]; // the squares that can block a rook
+	private static final int[] ROOK_SHIFTS = new int[64];
+	private static final int[] ROOK_OFFSETS = new int[64];
+	private static final long[] ROOK_TABLE = new long[102400];
+	private static final long[] BISHOP_MASKS = new long[64];
+	private static final int[] BISHOP_SHIFTS = new int[64];
+	private static final int[] BISHOP_OFFSETS = new int[64];
+	private static final long[] BISHOP_TABLE = new long[5248];
+
+	// found ahead of time by trying sparse random numbers until one worked for each square
+	private static final long[] ROOK_MAGICS = {
+			0x2200108041002200L, 0x0140200040001000L, 0x2080081000802001L, 0x5280100004800801L,
+			0x0E00041018320020L, 0x0200041008010200L, 0xE180010000800A00L, 0x0100018A02284100L,
+			0x1000800090204000L, 0x0080400020100040L, 0x0025002007004010L, 0x0002802800807001L,
+			0x0008800400800800L, 0x020A800200240080L, 0x0009001409000200L, 0x00020000805C2201L,
+			0x0380014020004000L, 0x2010004020004000L, 0x00A0028020807000L, 0x0008028010008148L,
+			0x0000808004000800L, 0x0906010088040100L, 0x1001010100020004L, 0x0080020001009044L,
+			0x0080400480008220L, 0x4008208200410601L, 0x0082004200201080L, 0x8040210100100008L,
+			0x0001009100080084L, 0x2200020080800400L, 0x1200060C00082510L, 0x0018404600040081L,
+			0x4440016040801280L, 0x0000804000802004L, 0x5460040010100200L, 0x0300400A02001020L,
+			0x6608100801000500L, 0x0091800201800400L, 0x6200021004008108L, 0x080000804A00110CL,
+			0x2001800040058020L, 0x2910042000484002L, 0x8400410020010010L, 0x4000082042020010L,
+			0x0008001009010004L, 0x4014008002008004L, 0x0842008001004040L, 0x18001640A1020004L,
+			0x1540028000442880L, 0x00C8810134400100L, 0x1020801020420200L, 0x0008090010002100L,
+			0x8014008008000480L, 0x02A2040080020080L, 0x0501000402000100L, 0x0002044405008600L,
+			0x8040208002110843L, 0x2000110820428202L, 0x2086200070084103L, 0x2800100104210009L,
+			0x0852002004100802L, 0x4019000400080201L, 0x4000014210008804L, 0x1002042049028402L };
+	private static final long[] BISHOP_MAGICS = {
+			0x8208100400840010L, 0x00500408008C20C0L, 0x0008008410830180L, 0x0004404080010080L,
+			0x1A11104028214000L, 0x030A01104A000800L, 0x9020881109200010L, 0x9046820105201202L,
+			0x0440410822209200L, 0x000002421204050CL, 0x0114148812004400L, 0x0001022082008C40L,
+			0x0140C40420000202L, 0x0041208804400020L, 0x9081009C21203004L, 0x8201820101211020L,
+			0x0010080460080120L, 0x4088081050810040L, 0x0A50008800891052L, 0x6A9081880E004001L,
+			0x400C000684A00028L, 0x4802000110500411L, 0x9060808200842040L, 0x80070000856B1000L,
+			0x1404400211020820L, 0x4809080E200A4C00L, 0x0140700A06008200L, 0x0050040000440008L,
+			0x0320840022802009L, 0x0315014008080800L, 0x008704200A0A0124L, 0x80108103008400C1L,
+			0x00A8820900402820L, 0x0828182810B40100L, 0x0801080100480048L, 0x0002004040040100L,
+			0x00004080200A0200L, 0x02020043020A1000L, 0xB484044C01004101L, 0x1001020A00909041L,
+			0x04410C1104084100L, 0x0000411011460800L, 0x0144084048003021L, 0x0002004208020080L,
+			0x0024880100440400L, 0x4820200040402080L, 0x808204080E208C80L, 0xA708008090830600L,
+			0x22A0480210908000L, 0x02084A1801080480L, 0x02000A008C440000L, 0x0054001108480000L,
+			0x4000584002920609L, 0xA402082028208044L, 0x0120839208050044L, 0x1890508084908000L,
+			0x408100808420020AL, 0x1240810062100402L, 0x0440010204840480L, 0x8810080000840400L,
+			0x1800000250020220L, 0x2000089110820820L, 0x0200A008424C8C10L, 0x2020200441004410L };
+
+	static {
+		int[][] knightJumps = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 },
+				{ -1, 2 } };
+
+		for (int square = 0; square < 64; square++) {
+			int x = square & 7;
+			int y = square >>> 3;
+
+			for (int[] jump : knightJumps) {
+				KNIGHT_ATTACKS[square] |= getBit(x + jump[0], y + jump[1]);
+			}
+			for (int[] direction : DIRECTIONS) {
+				KING_ATTACKS[square] |= getBit(x + direction[0], y + direction[1]);
+			}
+			PAWN_ATTACKS[Color.WHITE.ordinal()][square] = getBit(x - 1, y + 1) | getBit(x + 1, y + 1);
+			PAWN_ATTACKS[Color.BLACK.ordinal()][square] = getBit(x - 1, y - 1) | getBit(x + 1, y - 1);
+
+			for (int d = 0; d < 8; d++) {
+				int rayX = x + DIRECTIONS[d][0];
+				int rayY = y + DIRECTIONS[d][1];
+				while (getBit(rayX, rayY) != 0L) {
+					RAYS[d][square] |= getBit(rayX, rayY);
+					rayX += DIRECTIONS[d][0];
+					rayY += DIRECTIONS[d][1];
+				}
+			}
+		}
+
+		// every pair of squares on the same rank, file, or diagonal
+		for (int from = 0; from < 64; from++) {
+			for (int d = 0; d < 8; d++) {
+				long ray = RAYS[d][from];
+				while (ray != 0L) {
+					int to = Long.numberOfTrailingZeros(ray);
+					ray &= ray - 1;
+					BETWEEN[from][to] = RAYS[d][from] & ~RAYS[d][to] & ~(1L << to);
+					LINE[from][to] = RAYS[d][from] | RAYS[(d + 4) % 8][from] | (1L << from);
+				}
+			}
+		}
+
+		initMagics(true, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_TABLE);
+		initMagics(false, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_TABLE);
+	}
+
+	private Bitboards() {
+	}
+
+	/**
+	 * returns the squares a rook on the given square attacks
+	 *
+	 * @param square   the rook's square
+	 * @param occupied the bitboard of every piece
+	 * @return the attacked squares (including the first blocker in each direction)
+	 */
+	public static long getRookAttacks(int square, long occupied) {
+		return ROOK_TABLE[ROOK_OFFSETS[square]
+				+ (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	/**
+	 * returns the squares a bishop on the given square attacks
+	 *
+	 * @param square   the bishop's square
+	 * @param occupied the bitboard of every piece
+	 * @return the attacked squares (including the first blocker in each direction)
+	 */
+	public static long getBishopAttacks(int square, long occupied) {
+		return BISHOP_TABLE[BISHOP_OFFSETS[square]
+				+ (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	/**
+	 * returns the squares a queen on the given square attacks
+	 *
+	 * @param square   the queen's square
+	 * @param occupied the bitboard of every piece
+	 * @return the attacked squares (including the first blocker in each direction)
+	 */
+	public static long getQueenAttacks(int square, long occupied) {
+		return getRookAttacks(square, occupied) | getBishopAttacks(square, occupied);
+	}
+
+	/**
+	 * @param from the first square
+	 * @param to   the second square
+	 * @return the squares strictly between from and to, 0 if they don't share a
+	 *         line
+	 */
+	public static long getBetween(int from, int to) {
+		return BETWEEN[from][to];
+	}
+
+	/**
+	 * @param from the first square
+	 * @param to   the second square
+	 * @return every square on the line through from and to, 0 if they don't share
+	 *         a line
+	 */
+	public static long getLine(int from, int to) {
+		return LINE[from][to];
+	}
+
+	/**
+	 * @param square a square on or off the board
+	 * @return the bit for the square, or 0 if the square is off the board
+	 */
+	public static long getBit(Square square) {
+		return getBit(square.getX() - 1, square.getY() - 1);
+	}
+
+	/**
+	 * MAGIC
+	 * TABLES---------------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * fills in the attacks for every set of blockers on every square. Two sets of
+	 * blockers can share a table entry only if they let the slider see the same
+	 * squares
+	 *
+	 * @param rook    true for the rook tables, false for the bishop tables
+	 * @param masks   filled with the squares that can block the slider
+	 * @param magics  the magic numbers
+	 * @param shifts  filled with how far the product is shifted to get an index
+	 * @param offsets filled with where each square's attacks start in the table
+	 * @param table   the shared table of attacks
+	 * @throws IllegalStateException if a magic number doesn't work
+	 */
+	private static void initMagics(boolean rook, long[] masks, long[] magics, int[] shifts, int[] offsets,
+			long[] table) {
+		int[] directions = rook ? new int[] { NORTH, EAST, SOUTH, WEST }
+				: new int[] { NORTH_EAST, NORTH_WEST, SOUTH_WEST, SOUTH_EAST };
+		int offset = 0;
+
+		for (int square = 0; square < 64; square++) {
+			// the last square of a ray can't block anything
+			for (int d : directions) {
+				long ray = RAYS[d][square];
+				long last = d < SOUTH ? Long.highestOneBit(ray) : Long.lowestOneBit(ray);
+				masks[square] |= ray & ~last;
+			}
+			int bits = Long.bitCount(masks[square]);
+			shifts[square] = 64 - bits;
+			offsets[square] = offset;
+
+			// every set of blockers is a subset of the mask (a slider always sees a square)
+			long blockers = 0L;
+			do {
+				long attacks = rook ? getRookRays(square, blockers) : getBishopRays(square, blockers);
+				int index = offset + (int) ((blockers * magics[square]) >>> shifts[square]);
+				if (table[index] != 0L && table[index] != attacks) {
+					throw new IllegalStateException("bad magic number for square " + square);
+				}
+				table[index] = attacks;
+				blockers = (blockers - masks[square]) & masks[square];
+			} while (blockers != 0L);
+			offset += 1 << bits;
+		}
+	}
+
+	/**
+	 * finds a rook's attacks by following its rays (used to fill the magic table)
+	 *
+	 * @param square   the rook's square
+	 * @param occupied the bitboard of every piece
+	 * @return the attacked squares (including the first blocker in each direction)
+	 */
+	private static long getRookRays(int square, long occupied) {
+		return getPositiveRay(NORTH, square, occupied) | getPositiveRay(EAST, square, occupied)
+				| getNegativeRay(SOUTH, square, occupied) | getNegativeRay(WEST, square, occupied);
+	}
+
+	/**
+	 * finds a bishop's attacks by following its rays (used to fill the magic
+	 * table)
+	 *
+	 * @param square   the bishop's square
+	 * @param occupied the bitboard of every piece
+	 * @return the attacked squares (including the first blocker in each direction)
+	 */
+	private static long getBishopRays(int square, long occupied) {
+		return getPositiveRay(NORTH_EAST, square, occupied) | getPositiveRay(NORTH_WEST, square, occupied)
+				| getNegativeRay(SOUTH_WEST, square, occupied) | getNegativeRay(SOUTH_EAST, square, occupied);
+	}
+
+	/**
+	 * follows a ray that goes up the board until it hits a piece
+	 *
+	 * @param direction the ray's direction
+	 * @param square    the square the ray starts from
+	 * @param occupied  the bitboard of every piece
+	 * @return the squares along the ray up to and including the first blocker
+	 */
+	private static long getPositiveRay(int direction, int square, long occupied) {
+		long ray = RAYS[direction][square];
+		long blockers = ray & occupied;
+		if (blockers != 0L) {
+			ray ^= RAYS[direction][Long.numberOfTrailingZeros(blockers)];
+		}
+		return ray;
+	}
+
+	/**
+	 * follows a ray that goes down the board until it hits a piece
+	 *
+	 * @param direction the ray's direction
+	 * @param square    the square the ray starts from
+	 * @param occupied  the bitboard of every piece
+	 * @return the squares along the ray up to and including the first blocker
+	 */
+	private static long getNegativeRay(int direction, int square, long occupied) {
+		long ray = RAYS[direction][square];
+		long blockers = ray & occupied;
+		if (blockers != 0L) {
+			ray ^= RAYS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+		}
+		return ray;
+	}
+
+	/**
+	 * @param x the column (0 - 7)
+	 * @param y the row (0 - 7)
+	 * @return the bit for the square, or 0 if the coordinates are off the board
+	 */
+	private static long getBit(int x, int y) {
+		if (x < 0 || x > 7 || y < 0 || y > 7) {
+			return 0L;
+		}
+		return 1L << ((y << 3) + x);
+	}
+}
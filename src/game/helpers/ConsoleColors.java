@@ -34,4 +34,18 @@ public interface ConsoleColors {
 		return " (" + Piece.MAGENTA + piece.getType() + Piece.RESET + ")";
 	}
 
+	/**
+	 * returns the type with it's appropriate color within paranthesis
+	 * 
+	 * @param type  the piece's type
+	 * @param color the piece's color
+	 * @return _(TYPE) -> but in magenta (black) or cyan (white)
+	 */
+	public static String toColorPiece(Piece.Type type, Piece.Color color) {
+		if (color == Piece.Color.WHITE) {
+			return " (" + Piece.CYAN + type + Piece.RESET + ")";
+		}
+		return " (" + Piece.MAGENTA + type + Piece.RESET + ")";
+	}
+
 }
@@ -0,0 +1,179 @@
+package game.helpers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import game.Move;
+import game.PieceList;
+import game.Position;
+import pieces.Bishop;
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+import pieces.Queen;
+import pieces.Rook;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Converter turns an ArrayList<Piece> into a Position and back again,
+ *         so the GUI can keep using pieces while the game and AI use bitboards
+ *
+ */
+public interface Converter {
+
+	/**
+	 * builds a Position out of the given pieces
+	 *
+	 * @param pieces     the ArrayList<Piece> of pieces
+	 * @param playerTurn the color of whose turn it is
+	 * @return the equivalent Position
+	 */
+	public static Position toPosition(ArrayList<Piece> pieces, Color playerTurn) {
+		Position position = new Position();
+		int castling = 0;
+
+		for (Piece p : pieces) {
+			position.addPiece(Position.getPieceCode(p.getColor(), p.getType()), Position.getIndex(p.getPosition()));
+
+			// en passant can only happen to the pawn that just jumped two squares
+			if (p.getType() == Type.PAWN && p.getColor() != playerTurn && ((Pawn) p).getCanGetEnPassant()) {
+				int behind = p.getColor() == Color.WHITE ? -1 : 1;
+				position.setEnPassant(Position.getIndex(p.getPosition().getX(), p.getPosition().getY() + behind));
+			}
+		}
+
+		// castling needs both the king and the rook to have never moved
+		for (Piece p : pieces) {
+			if (p.getType() != Type.KING || !((King) p).canCastle() || p.getPosition().getX() != 5) {
+				continue;
+			}
+			int row = p.getPosition().getY();
+			boolean isWhite = p.getColor() == Color.WHITE;
+			if (canRookCastle(pieces, 8, row, p.getColor())) {
+				castling |= isWhite ? Position.WHITE_KING_SIDE : Position.BLACK_KING_SIDE;
+			}
+			if (canRookCastle(pieces, 1, row, p.getColor())) {
+				castling |= isWhite ? Position.WHITE_QUEEN_SIDE : Position.BLACK_QUEEN_SIDE;
+			}
+		}
+		position.setCastling(castling);
+		position.setSideToMove(playerTurn);
+
+		return position;
+	}
+
+	/**
+	 * builds a Position out of the given pieces, with the move counters taken from
+	 * the game's history
+	 *
+	 * @param pieces     the ArrayList<Piece> of pieces
+	 * @param history    the LinkedList of past moves
+	 * @param playerTurn the color of whose turn it is
+	 * @return the equivalent Position
+	 */
+	public static Position toPosition(ArrayList<Piece> pieces, LinkedList<Move> history, Color playerTurn) {
+		Position position = toPosition(pieces, playerTurn);
+		Iterator<Move> iterator = history.descendingIterator();
+		int halfMoves = 0;
+
+		// count the moves since the last pawn move or capture
+		while (iterator.hasNext() && !iterator.next().isPawnOrCapture()) {
+			halfMoves++;
+		}
+		position.setHalfMoveClock(halfMoves);
+		position.setFullMoveNumber(history.size() / 2 + 1);
+
+		return position;
+	}
+
+	/**
+	 * builds an ArrayList<Piece> out of the given position
+	 *
+	 * @param position the Position being converted
+	 * @return the equivalent ArrayList<Piece> of pieces
+	 */
+	public static ArrayList<Piece> toPieces(Position position) {
+		ArrayList<Piece> pieces = new PieceList();
+		int castling = position.getCastling();
+		int enPassant = position.getEnPassant();
+		int code;
+		Piece piece;
+
+		for (int i = 0; i < 64; i++) {
+			code = position.getPiece(i);
+			if (code == Position.EMPTY) {
+				continue;
+			}
+			piece = createPiece(Position.getTypeOf(code), Position.getX(i), Position.getY(i),
+					Position.getColorOf(code));
+
+			switch (piece.getType()) {
+			case KING:
+				int kingRights = piece.getColor() == Color.WHITE
+						? Position.WHITE_KING_SIDE | Position.WHITE_QUEEN_SIDE
+						: Position.BLACK_KING_SIDE | Position.BLACK_QUEEN_SIDE;
+				((King) piece).setCanCastle((castling & kingRights) != 0);
+				break;
+			case ROOK:
+				((Rook) piece).setCanCastle((castling & Position.getCastlingRight(i)) != 0);
+				break;
+			case PAWN:
+				// the pawn that can get en passant is just past the en passant square
+				if (enPassant != Position.NO_SQUARE) {
+					int ahead = piece.getColor() == Color.WHITE ? 8 : -8;
+					((Pawn) piece).setCanGetEnPassant(enPassant + ahead == i);
+				}
+				break;
+			default:
+			}
+			pieces.add(piece);
+		}
+		return pieces;
+	}
+
+	/**
+	 * creates a piece of the given type
+	 *
+	 * @param type  the type of piece
+	 * @param x     the column
+	 * @param y     the row
+	 * @param color the color of the piece
+	 * @return the new piece
+	 */
+	public static Piece createPiece(Type type, int x, int y, Color color) {
+		switch (type) {
+		case KING:
+			return new King(x, y, color);
+		case QUEEN:
+			return new Queen(x, y, color);
+		case ROOK:
+			return new Rook(x, y, color);
+		case BISHOP:
+			return new Bishop(x, y, color);
+		case KNIGHT:
+			return new Knight(x, y, color);
+		default:
+			return new Pawn(x, y, color);
+		}
+	}
+
+	/**
+	 * determines if there is a rook on the given square that can still castle
+	 *
+	 * @param pieces the ArrayList<Piece> of pieces
+	 * @param x      the rook's column
+	 * @param y      the rook's row
+	 * @param color  the king's color
+	 * @return true if the rook can castle, false otherwise
+	 */
+	private static boolean canRookCastle(ArrayList<Piece> pieces, int x, int y, Color color) {
+		Piece rook = Finder.getPieceOnSquare(x, y, pieces);
+		return rook != null && rook.getType() == Type.ROOK && rook.getColor() == color && ((Rook) rook).canCastle();
+	}
+}
@@ -1,6 +1,7 @@
 package game.helpers;
 import java.util.ArrayList;
 
+import game.PieceList;
 import pieces.Bishop;
 import pieces.King;
 import pieces.Knight;
@@ -58,7 +59,7 @@ public interface Copier {
 	 * @return the copied ArrayList<Piece>
 	 */
 	public static ArrayList<Piece> copyBoard(ArrayList<Piece> pieces) {
-		ArrayList<Piece> piecesCopy = new ArrayList<Piece>();
+		ArrayList<Piece> piecesCopy = new PieceList();
 
 		for (Piece p : pieces) {
 			switch (p.getType()) {
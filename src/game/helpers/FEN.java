@@ -0,0 +1,275 @@
+package game.helpers;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import game.Move;
+import game.Position;
+import pieces.Piece;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         FEN reads and writes positions in Forsyth-Edwards Notation, the
+ *         standard one-line way of writing down a chess position. A game can be
+ *         saved as a FEN and started again from it later
+ *
+ *         - the pieces, row 8 first (uppercase for white, digits for empty
+ *         squares). Each player needs exactly one king, and pawns can't be on
+ *         rows 1 or 8
+ *
+ *         - the player to move (w or b)
+ *
+ *         - the castling rights (any of KQkq, or -)
+ *
+ *         - the en passant square (like e3, or -)
+ *
+ *         - the halfmove clock and fullmove number (optional)
+ *
+ */
+public interface FEN {
+
+	public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	/**
+	 * builds a Position out of a FEN
+	 *
+	 * @param fen the FEN being read
+	 * @return the Position the FEN describes
+	 * @throws IllegalArgumentException if the FEN can't be read
+	 */
+	public static Position toPosition(String fen) {
+		String[] fields = fen.trim().split("\\s+");
+		if (fields.length < 4) {
+			throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+		}
+		Position position = new Position();
+
+		// pieces
+		String[] rows = fields[0].split("/");
+		if (rows.length != 8) {
+			throw new IllegalArgumentException("FEN needs 8 rows: " + fields[0]);
+		}
+		for (int i = 0; i < 8; i++) {
+			int y = 8 - i;
+			int x = 1;
+			for (char c : rows[i].toCharArray()) {
+				if (x > 8) {
+					throw new IllegalArgumentException("FEN row has more than 8 squares: " + rows[i]);
+				}
+				if (Character.isDigit(c)) {
+					x += c - '0';
+				} else {
+					Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+					Type type = toType(c);
+					if (type == Type.PAWN && (y == 1 || y == 8)) {
+						throw new IllegalArgumentException("FEN has a pawn on row " + y + ": " + rows[i]);
+					}
+					position.addPiece(Position.getPieceCode(color, type), Position.getIndex(x, y));
+					x++;
+				}
+			}
+			if (x != 9) {
+				throw new IllegalArgumentException("FEN row doesn't have 8 squares: " + rows[i]);
+			}
+		}
+
+		// the rest of the game needs both kings to be there
+		for (Color color : Color.values()) {
+			if (Long.bitCount(position.getPieces(color, Type.KING)) != 1) {
+				throw new IllegalArgumentException(
+						"FEN needs exactly one " + color.name.toLowerCase() + " king: " + fields[0]);
+			}
+		}
+
+		// player to move
+		if (fields[1].equals("w")) {
+			position.setSideToMove(Color.WHITE);
+		} else if (fields[1].equals("b")) {
+			position.setSideToMove(Color.BLACK);
+		} else {
+			throw new IllegalArgumentException("FEN player to move must be w or b: " + fields[1]);
+		}
+
+		// castling
+		int castling = 0;
+		for (char c : fields[2].toCharArray()) {
+			switch (c) {
+			case 'K':
+				castling |= Position.WHITE_KING_SIDE;
+				break;
+			case 'Q':
+				castling |= Position.WHITE_QUEEN_SIDE;
+				break;
+			case 'k':
+				castling |= Position.BLACK_KING_SIDE;
+				break;
+			case 'q':
+				castling |= Position.BLACK_QUEEN_SIDE;
+				break;
+			case '-':
+				break;
+			default:
+				throw new IllegalArgumentException("FEN castling rights can't include " + c);
+			}
+		}
+		position.setCastling(castling);
+
+		// en passant
+		if (!fields[3].equals("-")) {
+			position.setEnPassant(toIndex(fields[3]));
+		}
+
+		// counters
+		try {
+			if (fields.length > 4) {
+				position.setHalfMoveClock(Integer.parseInt(fields[4]));
+			}
+			if (fields.length > 5) {
+				position.setFullMoveNumber(Integer.parseInt(fields[5]));
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("FEN move counters must be numbers: " + fen);
+		}
+		return position;
+	}
+
+	/**
+	 * builds an ArrayList<Piece> out of a FEN. Kings and rooks that still have
+	 * castling rights can castle, and the pawn that just jumped two squares can be
+	 * taken en passant
+	 *
+	 * @param fen the FEN being read
+	 * @return the pieces the FEN describes
+	 * @throws IllegalArgumentException if the FEN can't be read
+	 */
+	public static ArrayList<Piece> toPieces(String fen) {
+		return Converter.toPieces(toPosition(fen));
+	}
+
+	/**
+	 * writes a Position as a FEN
+	 *
+	 * @param position the Position being written
+	 * @return the position's FEN
+	 */
+	public static String toFEN(Position position) {
+		StringBuilder builder = new StringBuilder();
+		int empty;
+		int code;
+
+		// pieces
+		for (int y = 8; y > 0; y--) {
+			empty = 0;
+			for (int x = 1; x < 9; x++) {
+				code = position.getPiece(Position.getIndex(x, y));
+				if (code == Position.EMPTY) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) {
+					builder.append(empty);
+					empty = 0;
+				}
+				builder.append(toLetter(Position.getTypeOf(code), Position.getColorOf(code)));
+			}
+			if (empty > 0) {
+				builder.append(empty);
+			}
+			if (y > 1) {
+				builder.append('/');
+			}
+		}
+
+		// player to move
+		builder.append(position.getSideToMove() == Color.WHITE ? " w " : " b ");
+
+		// castling
+		int castling = position.getCastling();
+		if (castling == 0) {
+			builder.append('-');
+		}
+		if ((castling & Position.WHITE_KING_SIDE) != 0) {
+			builder.append('K');
+		}
+		if ((castling & Position.WHITE_QUEEN_SIDE) != 0) {
+			builder.append('Q');
+		}
+		if ((castling & Position.BLACK_KING_SIDE) != 0) {
+			builder.append('k');
+		}
+		if ((castling & Position.BLACK_QUEEN_SIDE) != 0) {
+			builder.append('q');
+		}
+
+		// en passant
+		int enPassant = position.getEnPassant();
+		builder.append(' ').append(enPassant == Position.NO_SQUARE ? "-" : Position.getSquare(enPassant).toString());
+
+		// counters
+		builder.append(' ').append(position.getHalfMoveClock()).append(' ').append(position.getFullMoveNumber());
+		return builder.toString();
+	}
+
+	/**
+	 * writes a game's pieces as a FEN. Castling rights come from the kings and
+	 * rooks, the en passant square from the pawns, and the move counters from the
+	 * history
+	 *
+	 * @param pieces     the ArrayList<Piece> of pieces
+	 * @param history    the LinkedList of past moves
+	 * @param playerTurn the color of whose turn it is
+	 * @return the game's FEN
+	 */
+	public static String toFEN(ArrayList<Piece> pieces, LinkedList<Move> history, Color playerTurn) {
+		return toFEN(Converter.toPosition(pieces, history, playerTurn));
+	}
+
+	/**
+	 * @param type  the piece's type
+	 * @param color the piece's color
+	 * @return the piece's letter (uppercase for white)
+	 */
+	public static char toLetter(Type type, Color color) {
+		char letter = type == Type.KNIGHT ? 'n' : type.name.toLowerCase().charAt(0);
+		return color == Color.WHITE ? Character.toUpperCase(letter) : letter;
+	}
+
+	/**
+	 * @param letter the piece's letter (either case)
+	 * @return the type of piece the letter stands for
+	 */
+	public static Type toType(char letter) {
+		switch (Character.toLowerCase(letter)) {
+		case 'k':
+			return Type.KING;
+		case 'q':
+			return Type.QUEEN;
+		case 'r':
+			return Type.ROOK;
+		case 'b':
+			return Type.BISHOP;
+		case 'n':
+			return Type.KNIGHT;
+		case 'p':
+			return Type.PAWN;
+		default:
+			throw new IllegalArgumentException("not a piece letter: " + letter);
+		}
+	}
+
+	/**
+	 * @param square a square in coordinate notation (like e3)
+	 * @return the square's index
+	 */
+	public static int toIndex(String square) {
+		if (square.length() != 2 || square.charAt(0) < 'a' || square.charAt(0) > 'h' || square.charAt(1) < '1'
+				|| square.charAt(1) > '8') {
+			throw new IllegalArgumentException("not a square: " + square);
+		}
+		return Position.getIndex(square.charAt(0) - 'a' + 1, square.charAt(1) - '0');
+	}
+}
@@ -59,8 +59,8 @@ public interface FXCommander {
 	 * @param gui
 	 */
 	public static void movePiece(Move move, ChessDriver gui) {
-		Square s = new Square(move.getPiece().getPosition());
-		Square d = new Square(move.getDestination());
+		Square s = move.getPiece().getPosition();
+		Square d = move.getDestination();
 		Platform.runLater(new Runnable() {
 			@Override
 			public void run() {
@@ -76,11 +76,10 @@ public interface FXCommander {
 	 * @param gui
 	 */
 	public static void removeImageAtPosition(Square position, ChessDriver gui) {
-		Square p = new Square(position);
 		Platform.runLater(new Runnable() {
 			@Override
 			public void run() {
-				gui.removeImageAtPosition(p);
+				gui.removeImageAtPosition(position);
 			}
 		});
 	}
@@ -159,11 +158,10 @@ public interface FXCommander {
 	 * @param gui
 	 */
 	public static void updateImage(Square position, Type type, Color color, ChessDriver gui) {
-		Square p = new Square(position);
 		Platform.runLater(new Runnable() {
 			@Override
 			public void run() {
-				gui.updateImage(p, type, color);
+				gui.updateImage(position, type, color);
 			}
 		});
 	}
@@ -1,6 +1,8 @@
 package game.helpers;
 
 import java.util.ArrayList;
+
+import game.PieceList;
 import game.Square;
 import pieces.Piece;
 
@@ -10,6 +12,9 @@ import pieces.Piece;
  * 
  *         Finder contains general board inquiries, such as getting a piece on a
  *         particular square
+ * 
+ *         - a PieceList answers from its mailbox, any other list of pieces is
+ *         searched
  *
  */
 public interface Finder {
@@ -22,6 +27,9 @@ public interface Finder {
 	 * @return the piece with the same position as square. null if no piece is found
 	 */
 	public static Piece getPieceOnSquare(Square square, ArrayList<Piece> pieces) {
+		if (pieces instanceof PieceList) {
+			return ((PieceList) pieces).getPiece(square);
+		}
 		for (Piece p : pieces) {
 			if (p.getPosition().equals(square)) {
 				return p;
@@ -39,8 +47,7 @@ public interface Finder {
 	 * @return the piece with the same position as square. null if no piece is found
 	 */
 	public static Piece getPieceOnSquare(int x, int y, ArrayList<Piece> pieces) {
-		Square square = new Square(x, y);
-		return getPieceOnSquare(square, pieces);
+		return getPieceOnSquare(Square.get(x, y), pieces);
 	}
 
 	/**
@@ -73,4 +80,22 @@ public interface Finder {
 		}
 		return false;
 	}
+
+	/**
+	 * makes a bitboard of every piece's square, so sliding pieces can look up
+	 * what blocks them
+	 * 
+	 * @param pieces the ArrayList<Piece> of all pieces
+	 * @return the bitboard of occupied squares
+	 */
+	public static long getOccupied(ArrayList<Piece> pieces) {
+		if (pieces instanceof PieceList) {
+			return ((PieceList) pieces).getOccupied();
+		}
+		long occupied = 0L;
+		for (Piece p : pieces) {
+			occupied |= 1L << p.getIndex();
+		}
+		return occupied;
+	}
 }
@@ -0,0 +1,65 @@
+package game.helpers;
+
+import java.util.Map;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         JSON writes flat records as single lines of JSON, so records can be
+ *         saved one per line (JSON lines) and read by other programs
+ *
+ *         - numbers and booleans are written as they are, everything else is
+ *         written as a string
+ *
+ */
+public interface JSON {
+
+	/**
+	 * writes a record as one line of JSON
+	 *
+	 * @param fields the record's fields in order
+	 * @return the record as a JSON object, without a line break
+	 */
+	public static String toJSON(Map<String, Object> fields) {
+		StringBuilder builder = new StringBuilder("{");
+		Object value;
+
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			if (builder.length() > 1) {
+				builder.append(',');
+			}
+			builder.append(toString(field.getKey())).append(':');
+
+			value = field.getValue();
+			if (value instanceof Number || value instanceof Boolean) {
+				builder.append(value);
+			} else {
+				builder.append(toString(String.valueOf(value)));
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+	/**
+	 * @param string the string being written
+	 * @return the string in quotes, with quotes, backslashes, and control
+	 *         characters escaped
+	 */
+	public static String toString(String string) {
+		StringBuilder builder = new StringBuilder("\"");
+		char c;
+
+		for (int i = 0; i < string.length(); i++) {
+			c = string.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c < ' ') {
+				builder.append(String.format("\\u%04x", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+}
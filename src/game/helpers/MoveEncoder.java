@@ -0,0 +1,194 @@
+package game.helpers;
+
+import game.Move;
+import game.Position;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         MoveEncoder packs a move into a single int so move lists can be plain
+ *         int arrays. A packed move says everything about itself, so it can be
+ *         scored or made without looking at the board
+ *
+ *         - bits 0 - 5: the starting square
+ *
+ *         - bits 6 - 11: the destination square
+ *
+ *         - bits 12 - 14: the promotion type (ordinal + 1, 0 if none)
+ *
+ *         - bits 15 - 17: flags (castle, en passant, double pawn push)
+ *
+ *         - bits 18 - 21: the moving piece's code
+ *
+ *         - bits 22 - 25: the captured piece's code + 1 (0 if nothing is
+ *         captured)
+ *
+ */
+public interface MoveEncoder {
+
+	public static final int NO_MOVE = 0;
+
+	// flags
+	public static final int CASTLE = 1;
+	public static final int EN_PASSANT = 2;
+	public static final int DOUBLE_PUSH = 4;
+
+	// the bits a packed move uses
+	public static final int MASK = (1 << 26) - 1;
+
+	/**
+	 * packs a move without a promotion
+	 *
+	 * @param from     the starting square
+	 * @param to       the destination square
+	 * @param piece    the moving piece's code
+	 * @param captured the captured piece's code (Position.EMPTY if there is none)
+	 * @param flags    any flags for the move
+	 * @return the packed move
+	 */
+	public static int encode(int from, int to, int piece, int captured, int flags) {
+		return from | (to << 6) | (flags << 15) | (piece << 18) | ((captured + 1) << 22);
+	}
+
+	/**
+	 * packs a pawn promotion
+	 *
+	 * @param from      the starting square
+	 * @param to        the destination square
+	 * @param piece     the pawn's piece code
+	 * @param captured  the captured piece's code (Position.EMPTY if there is none)
+	 * @param promoteTo the type the pawn promotes to
+	 * @return the packed move
+	 */
+	public static int encodePromotion(int from, int to, int piece, int captured, Type promoteTo) {
+		return from | (to << 6) | ((promoteTo.ordinal() + 1) << 12) | (piece << 18) | ((captured + 1) << 22);
+	}
+
+	/**
+	 * packs a game.Move (a pawn promotes to a queen unless the move says
+	 * otherwise)
+	 *
+	 * @param move the Move being packed
+	 * @return the packed move
+	 */
+	public static int encode(Move move) {
+		int from = Position.getIndex(move.getPiece().getPosition());
+		int to = Position.getIndex(move.getDestination());
+		int piece = Position.getPieceCode(move.getPiece().getColor(), move.getPiece().getType());
+		int captured = move.getCapturePiece() == null ? Position.EMPTY
+				: Position.getPieceCode(move.getCapturePiece().getColor(), move.getCapturePiece().getType());
+
+		if (move.getPiece().getType() == Type.PAWN) {
+			if (move.getDestination().isEdgeRank()) {
+				return encodePromotion(from, to, piece, captured,
+						move.getPromoteTo() != null ? move.getPromoteTo() : Type.QUEEN);
+			}
+			if (Math.abs(to - from) == 16) {
+				return encode(from, to, piece, captured, DOUBLE_PUSH);
+			}
+			// en passant is the only capture that doesn't happen on the destination
+			if (move.getCapturePiece() != null && !move.getCapturePiece().getPosition().equals(move.getDestination())) {
+				return encode(from, to, piece, captured, EN_PASSANT);
+			}
+		}
+		return encode(from, to, piece, captured, move.getRookJump() != null ? CASTLE : 0);
+	}
+
+	public static int getFrom(int move) {
+		return move & 63;
+	}
+
+	public static int getTo(int move) {
+		return (move >>> 6) & 63;
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the moving piece's code
+	 */
+	public static int getPiece(int move) {
+		return (move >>> 18) & 15;
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the captured piece's code, Position.EMPTY if nothing is captured
+	 */
+	public static int getCaptured(int move) {
+		return ((move >>> 22) & 15) - 1;
+	}
+
+	public static boolean isCapture(int move) {
+		return ((move >>> 22) & 15) != 0;
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the square of the captured piece (behind the destination for en
+	 *         passant)
+	 */
+	public static int getCaptureSquare(int move) {
+		if (isEnPassant(move)) {
+			return getTo(move) + (Position.getColorOf(getPiece(move)) == Color.WHITE ? -8 : 8);
+		}
+		return getTo(move);
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the square the rook jumps from when castling
+	 */
+	public static int getRookFrom(int move) {
+		return getTo(move) > getFrom(move) ? getFrom(move) + 3 : getFrom(move) - 4;
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the square the rook jumps to when castling
+	 */
+	public static int getRookTo(int move) {
+		return (getFrom(move) + getTo(move)) / 2;
+	}
+
+	/**
+	 * @param move the packed move
+	 * @return the type the pawn promotes to, null if the move isn't a promotion
+	 */
+	public static Type getPromotion(int move) {
+		int promotion = (move >>> 12) & 7;
+		return promotion == 0 ? null : Position.TYPES[promotion - 1];
+	}
+
+	public static boolean isPromotion(int move) {
+		return ((move >>> 12) & 7) != 0;
+	}
+
+	public static boolean isCastle(int move) {
+		return ((move >>> 15) & CASTLE) != 0;
+	}
+
+	public static boolean isEnPassant(int move) {
+		return ((move >>> 15) & EN_PASSANT) != 0;
+	}
+
+	public static boolean isDoublePush(int move) {
+		return ((move >>> 15) & DOUBLE_PUSH) != 0;
+	}
+
+	/**
+	 * writes the move in coordinate notation (e2e4, e7e8q)
+	 *
+	 * @param move the packed move
+	 * @return the move as text
+	 */
+	public static String toString(int move) {
+		String text = Position.getSquare(getFrom(move)).toString() + Position.getSquare(getTo(move));
+		if (isPromotion(move)) {
+			text += getPromotion(move) == Type.KNIGHT ? 'n' : getPromotion(move).name.toLowerCase().charAt(0);
+		}
+		return text;
+	}
+}
@@ -3,7 +3,11 @@ package game.helpers;
 import java.util.ArrayList;
 
 import ai.AI;
+import game.AttackMap;
 import game.Move;
+import game.PieceList;
+import game.Position;
+import game.Square;
 import game.StandardGame;
 import gui.ChessDriver;
 import pieces.Bishop;
@@ -21,6 +25,14 @@ import pieces.Piece.Type;
  * @author John Hoffmann
  * 
  *         MoveExecuter executes given moves and updates the GUI if asked to
+ * 
+ *         - makeMove and unmakeMove try moves on the pieces in place, but each
+ *         makeMove still makes an Undo (and a new piece for a promotion). Only
+ *         Position keeps its undo information on stacks, so the search, which
+ *         makes moves by the million, plays them on a Position instead. The
+ *         pieces are only tried on once per analyzed move (and by the GUI's
+ *         legality checks), where the Undo is one of many objects the
+ *         analysis makes anyway
  *
  */
 public interface MoveExecuter {
@@ -97,6 +109,7 @@ public interface MoveExecuter {
 					piece = new Queen(piece.getPosition().getX(), piece.getPosition().getY(), piece.getColor());
 					pieces.add(piece);
 				}
+				move.setPromoteTo(piece.getType());
 			}
 			break;
 		case KING:
@@ -112,7 +125,7 @@ public interface MoveExecuter {
 		// move the rook if the king castled
 		if (move.getRookJump() != null) {
 			Piece rook = Finder.getPieceOnSquare(move.getRookJump().getPiece().getPosition(), pieces);
-			rook.setPosition(move.getRookJump().getDestination());
+			setPosition(rook, move.getRookJump().getDestination(), pieces);
 
 			if (updateGUI) {
 				FXCommander.movePiece(move.getRookJump(), gui);
@@ -120,12 +133,238 @@ public interface MoveExecuter {
 		}
 
 		// move the piece
-		piece.setPosition(move.getDestination());
+		setPosition(piece, move.getDestination(), pieces);
 		if (updateGUI) {
 			FXCommander.movePiece(move, gui);
 		}
 	}
 
+	/**
+	 * executes a move on the given Position, keeping it in sync with the
+	 * ArrayList<Piece> the move was made on
+	 * 
+	 * @param move     the move being executed
+	 * @param position the Position of the game
+	 */
+	public static void movePiece(Move move, Position position) {
+		position.makeMove(MoveEncoder.encode(move));
+	}
+
+	/**
+	 * executes a move on the given board in place (exactly like testMove) and
+	 * remembers what changed so that unmakeMove can take it back. This lets
+	 * analysis try out moves without copying the board
+	 * 
+	 * the pieces should not be reordered until the move is unmade
+	 * 
+	 * @param move   the move being executed
+	 * @param pieces the ArrayList<Piece> of pieces
+	 * @return the Undo needed to take back the move
+	 */
+	public static Undo makeMove(Move move, ArrayList<Piece> pieces) {
+		return makeMove(MoveEncoder.encode(move), pieces);
+	}
+
+	/**
+	 * executes a packed move on the given board in place, like makeMove above. The
+	 * pieces are found from the move's squares, so no Move has to be made (an Undo
+	 * still is)
+	 * 
+	 * @param move   the packed move being executed
+	 * @param pieces the ArrayList<Piece> of pieces
+	 * @return the Undo needed to take back the move
+	 */
+	public static Undo makeMove(int move, ArrayList<Piece> pieces) {
+		Undo undo = new Undo();
+		Piece piece = Finder.getPieceOnSquare(Position.getSquare(MoveEncoder.getFrom(move)), pieces);
+		undo.piece = piece;
+		undo.from = piece.getPosition();
+
+		// take captured piece off the board
+		if (MoveEncoder.isCapture(move)) {
+			undo.capturePiece = Finder.getPieceOnSquare(Position.getSquare(MoveEncoder.getCaptureSquare(move)),
+					pieces);
+			undo.captureIndex = indexOf(undo.capturePiece, pieces);
+			pieces.remove(undo.captureIndex);
+		}
+
+		switch (piece.getType()) {
+		case PAWN:
+			undo.flag = ((Pawn) piece).getCanGetEnPassant();
+
+			// turn canGetOnPassant on if pawn jumped two spaces
+			if (MoveEncoder.isDoublePush(move)) {
+				((Pawn) piece).setCanGetEnPassant(true);
+			} else if (MoveEncoder.isPromotion(move)) {
+				undo.promoteIndex = indexOf(piece, pieces);
+				piece = Converter.createPiece(MoveEncoder.getPromotion(move), piece.getPosition().getX(),
+						piece.getPosition().getY(), piece.getColor());
+				pieces.set(undo.promoteIndex, piece);
+			}
+			break;
+		case KING:
+			undo.flag = ((King) piece).canCastle();
+			((King) piece).setCanCastle(false);
+			break;
+		case ROOK:
+			undo.flag = ((Rook) piece).canCastle();
+			((Rook) piece).setCanCastle(false);
+			break;
+		default:
+			// do nothing
+		}
+
+		// move the rook if the king castled
+		if (MoveEncoder.isCastle(move)) {
+			undo.rook = Finder.getPieceOnSquare(Position.getSquare(MoveEncoder.getRookFrom(move)), pieces);
+			undo.rookFrom = undo.rook.getPosition();
+			setPosition(undo.rook, Position.getSquare(MoveEncoder.getRookTo(move)), pieces);
+		}
+
+		// move the piece
+		setPosition(piece, Position.getSquare(MoveEncoder.getTo(move)), pieces);
+		return undo;
+	}
+
+	/**
+	 * executes a packed move on the given board in place (like makeMove above),
+	 * keeping the board's AttackMap up to date
+	 * 
+	 * @param move      the packed move being executed
+	 * @param pieces    the ArrayList<Piece> of pieces
+	 * @param attackMap the AttackMap of the pieces
+	 * @return the Undo needed to take back the move
+	 */
+	public static Undo makeMove(int move, ArrayList<Piece> pieces, AttackMap attackMap) {
+		Undo undo = makeMove(move, pieces);
+		Piece piece = undo.promoteIndex >= 0 ? pieces.get(undo.promoteIndex) : undo.piece;
+
+		if (undo.capturePiece != null) {
+			attackMap.removePiece(undo.capturePiece.getIndex());
+		}
+		attackMap.removePiece(undo.from.getIndex());
+		attackMap.addPiece(piece.getIndex(), piece.getColor(), piece.getType());
+		if (undo.rook != null) {
+			attackMap.removePiece(undo.rookFrom.getIndex());
+			attackMap.addPiece(undo.rook.getIndex(), undo.rook.getColor(), Type.ROOK);
+		}
+		attackMap.update();
+		return undo;
+	}
+
+	/**
+	 * takes back a move made with makeMove, keeping the board's AttackMap up to
+	 * date
+	 * 
+	 * @param undo      the Undo returned by makeMove
+	 * @param pieces    the ArrayList<Piece> of pieces
+	 * @param attackMap the AttackMap of the pieces
+	 */
+	public static void unmakeMove(Undo undo, ArrayList<Piece> pieces, AttackMap attackMap) {
+		Piece piece = undo.promoteIndex >= 0 ? pieces.get(undo.promoteIndex) : undo.piece;
+
+		attackMap.removePiece(piece.getIndex());
+		if (undo.rook != null) {
+			attackMap.removePiece(undo.rook.getIndex());
+			attackMap.addPiece(undo.rookFrom.getIndex(), undo.rook.getColor(), Type.ROOK);
+		}
+		unmakeMove(undo, pieces);
+		attackMap.addPiece(undo.piece.getIndex(), undo.piece.getColor(), undo.piece.getType());
+		if (undo.capturePiece != null) {
+			attackMap.addPiece(undo.capturePiece.getIndex(), undo.capturePiece.getColor(),
+					undo.capturePiece.getType());
+		}
+		attackMap.update();
+	}
+
+	/**
+	 * takes back a move made with makeMove, restoring the captured piece, castling
+	 * and en passant flags, and promoted pawn
+	 * 
+	 * @param undo   the Undo returned by makeMove
+	 * @param pieces the ArrayList<Piece> of pieces
+	 */
+	public static void unmakeMove(Undo undo, ArrayList<Piece> pieces) {
+		Piece piece = undo.piece;
+
+		// the pawn never left its square, it was just replaced by the queen
+		if (undo.promoteIndex >= 0) {
+			pieces.set(undo.promoteIndex, piece);
+		} else {
+			setPosition(piece, undo.from, pieces);
+		}
+
+		switch (piece.getType()) {
+		case PAWN:
+			((Pawn) piece).setCanGetEnPassant(undo.flag);
+			break;
+		case KING:
+			((King) piece).setCanCastle(undo.flag);
+			break;
+		case ROOK:
+			((Rook) piece).setCanCastle(undo.flag);
+			break;
+		default:
+			// do nothing
+		}
+
+		if (undo.rook != null) {
+			setPosition(undo.rook, undo.rookFrom, pieces);
+		}
+		if (undo.capturePiece != null) {
+			pieces.add(undo.captureIndex, undo.capturePiece);
+		}
+	}
+
+	/**
+	 * finds the exact piece object in pieces
+	 * 
+	 * @param piece  the piece being looked for
+	 * @param pieces the ArrayList<Piece> of pieces
+	 * @return the index of piece, -1 if it isn't there
+	 */
+	private static int indexOf(Piece piece, ArrayList<Piece> pieces) {
+		for (int i = 0; i < pieces.size(); i++) {
+			if (pieces.get(i) == piece) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * moves a piece to another square, keeping the mailbox of a PieceList up to
+	 * date
+	 * 
+	 * @param piece       the piece being moved
+	 * @param destination the square it's moving to
+	 * @param pieces      the ArrayList<Piece> the piece is in
+	 */
+	private static void setPosition(Piece piece, Square destination, ArrayList<Piece> pieces) {
+		if (pieces instanceof PieceList) {
+			((PieceList) pieces).move(piece, destination);
+		} else {
+			piece.setPosition(destination);
+		}
+	}
+
+	/**
+	 * Undo holds everything makeMove changed
+	 */
+	public static class Undo {
+		private Piece piece; // the piece that moved (the pawn if it promoted)
+		private Square from; // where the piece came from
+		private boolean flag; // the piece's canCastle or canGetEnPassant before moving
+
+		private Piece capturePiece;
+		private int captureIndex;
+
+		private Piece rook; // the rook that jumped over the king
+		private Square rookFrom;
+
+		private int promoteIndex = -1; // where the promoted pawn was in pieces
+	}
+
 	/**
 	 * promotes a given pawn to either a queen, rook, bishop, or knight
 	 * 
@@ -0,0 +1,356 @@
+package game.helpers;
+
+import game.Position;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         MoveGenerator finds every legal move in a Position. Each piece only
+ *         looks at the squares it can actually reach, and moves that would
+ *         leave the king in check are filtered out with check and pin masks
+ *         instead of by testing each move on a copied board
+ *
+ */
+public interface MoveGenerator {
+
+	public static final int MAX_MOVES = 256; // no position has more legal moves than this
+
+	// pieces whose moves are exactly the squares they attack
+	public static final Type[] ATTACK_MOVERS = { Type.QUEEN, Type.ROOK, Type.BISHOP, Type.KNIGHT };
+
+	/**
+	 * fills moves with every legal move for the side to move
+	 *
+	 * @param position the Position being examined
+	 * @param moves    the array the packed moves are written to (at least
+	 *                 MAX_MOVES long)
+	 * @return the amount of legal moves
+	 */
+	public static int getLegalMoves(Position position, int[] moves) {
+		return getLegalMoves(position, moves, false);
+	}
+
+	/**
+	 * fills moves with every legal capture and promotion for the side to move
+	 * (including en passant)
+	 *
+	 * @param position the Position being examined
+	 * @param moves    the array the packed moves are written to (at least
+	 *                 MAX_MOVES long)
+	 * @return the amount of legal captures and promotions
+	 */
+	public static int getLegalCaptures(Position position, int[] moves) {
+		return getLegalMoves(position, moves, true);
+	}
+
+	/**
+	 * determines if the side to move has at least one legal move
+	 *
+	 * @param position the Position being examined
+	 * @return true if there is a legal move, false otherwise
+	 */
+	public static boolean hasLegalMove(Position position) {
+		return getLegalMoves(position, new int[MAX_MOVES]) > 0;
+	}
+
+	/**
+	 * determines if the side to move is in check
+	 *
+	 * @param position the Position being examined
+	 * @return true if the king is attacked, false otherwise
+	 */
+	public static boolean inCheck(Position position) {
+		Color us = position.getSideToMove();
+		return isAttacked(position, position.getKingIndex(us), Color.getOppColor(us), position.getOccupied());
+	}
+
+	/**
+	 * determines if the given square is attacked by a color
+	 *
+	 * @param position the Position being examined
+	 * @param square   the square in question
+	 * @param attacker the color of the attacking pieces
+	 * @param occupied the bitboard of pieces that block sliding pieces
+	 * @return true if any piece of the attacking color sees square
+	 */
+	public static boolean isAttacked(Position position, int square, Color attacker, long occupied) {
+		return getAttackers(position, square, attacker, occupied) != 0L;
+	}
+
+	/**
+	 * returns every piece of the attacking color that sees the given square
+	 *
+	 * @param position the Position being examined
+	 * @param square   the square in question
+	 * @param attacker the color of the attacking pieces
+	 * @param occupied the bitboard of pieces that block sliding pieces
+	 * @return the bitboard of attacking pieces
+	 */
+	public static long getAttackers(Position position, int square, Color attacker, long occupied) {
+		long queens = position.getPieces(attacker, Type.QUEEN);
+		// a pawn attacks the squares an opposite colored pawn on square would attack
+		return (Bitboards.PAWN_ATTACKS[Color.getOppColor(attacker).ordinal()][square]
+				& position.getPieces(attacker, Type.PAWN))
+				| (Bitboards.KNIGHT_ATTACKS[square] & position.getPieces(attacker, Type.KNIGHT))
+				| (Bitboards.KING_ATTACKS[square] & position.getPieces(attacker, Type.KING))
+				| (Bitboards.getBishopAttacks(square, occupied)
+						& (position.getPieces(attacker, Type.BISHOP) | queens))
+				| (Bitboards.getRookAttacks(square, occupied) & (position.getPieces(attacker, Type.ROOK) | queens));
+	}
+
+	/**
+	 * returns the squares a non-pawn piece attacks
+	 *
+	 * @param type     the type of piece
+	 * @param square   the piece's square
+	 * @param occupied the bitboard of pieces that block sliding pieces
+	 * @return the attacked squares
+	 */
+	public static long getAttacks(Type type, int square, long occupied) {
+		switch (type) {
+		case KING:
+			return Bitboards.KING_ATTACKS[square];
+		case QUEEN:
+			return Bitboards.getQueenAttacks(square, occupied);
+		case ROOK:
+			return Bitboards.getRookAttacks(square, occupied);
+		case BISHOP:
+			return Bitboards.getBishopAttacks(square, occupied);
+		case KNIGHT:
+			return Bitboards.KNIGHT_ATTACKS[square];
+		default:
+			return 0L;
+		}
+	}
+
+	/**
+	 * returns the friendly pieces that are pinned to their king
+	 *
+	 * @param position the Position being examined
+	 * @param us       the color of the pinned pieces
+	 * @param king     the index of that color's king
+	 * @return the bitboard of pinned pieces
+	 */
+	public static long getPinned(Position position, Color us, int king) {
+		Color them = Color.getOppColor(us);
+		long queens = position.getPieces(them, Type.QUEEN);
+		// enemy sliders that would see the king on an empty board
+		long snipers = (Bitboards.getRookAttacks(king, 0L) & (position.getPieces(them, Type.ROOK) | queens))
+				| (Bitboards.getBishopAttacks(king, 0L) & (position.getPieces(them, Type.BISHOP) | queens));
+		long pinned = 0L;
+
+		while (snipers != 0L) {
+			int sniper = Long.numberOfTrailingZeros(snipers);
+			snipers &= snipers - 1;
+			long blockers = Bitboards.getBetween(king, sniper) & position.getOccupied();
+			// exactly one friendly piece in the way is pinned
+			if (Long.bitCount(blockers) == 1 && (blockers & position.getPieces(us)) != 0L) {
+				pinned |= blockers;
+			}
+		}
+		return pinned;
+	}
+
+	/**
+	 * HELPER
+	 * METHODS---------------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * fills moves with the legal moves for the side to move
+	 *
+	 * @param position the Position being examined
+	 * @param moves    the array the packed moves are written to
+	 * @param captures true for only captures and promotions, false for every move
+	 * @return the amount of legal moves
+	 */
+	private static int getLegalMoves(Position position, int[] moves, boolean captures) {
+		Color us = position.getSideToMove();
+		Color them = Color.getOppColor(us);
+		long friends = position.getPieces(us);
+		long occupied = position.getOccupied();
+		long allowed = captures ? position.getPieces(them) : ~friends; // the squares pieces can move to
+		int king = position.getKingIndex(us);
+		int count = 0;
+
+		// king moves can't land on attacked squares (the king doesn't block attacks
+		// through its own square)
+		long kingless = occupied & ~(1L << king);
+		long targets = Bitboards.KING_ATTACKS[king] & allowed;
+		int code = Position.getPieceCode(us, Type.KING);
+		while (targets != 0L) {
+			int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			if (!isAttacked(position, to, them, kingless)) {
+				moves[count++] = MoveEncoder.encode(king, to, code, position.getPiece(to), 0);
+			}
+		}
+
+		long checkers = getAttackers(position, king, them, occupied);
+		// only the king can move out of double check
+		if (Long.bitCount(checkers) > 1) {
+			return count;
+		}
+
+		// every other move has to capture the checker or block it
+		long checkMask = -1L;
+		if (checkers != 0L) {
+			int checker = Long.numberOfTrailingZeros(checkers);
+			checkMask = checkers | Bitboards.getBetween(king, checker);
+		}
+		long pinned = getPinned(position, us, king);
+
+		// knights, bishops, rooks, and queens
+		for (Type type : ATTACK_MOVERS) {
+			long pieces = position.getPieces(us, type);
+			code = Position.getPieceCode(us, type);
+			while (pieces != 0L) {
+				int from = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				targets = getAttacks(type, from, occupied) & allowed & checkMask;
+				if ((pinned & (1L << from)) != 0L) {
+					targets &= Bitboards.getLine(king, from);
+				}
+				while (targets != 0L) {
+					int to = Long.numberOfTrailingZeros(targets);
+					targets &= targets - 1;
+					moves[count++] = MoveEncoder.encode(from, to, code, position.getPiece(to), 0);
+				}
+			}
+		}
+
+		count = addPawnMoves(position, moves, count, us, king, checkMask, pinned, captures);
+
+		if (checkers == 0L && !captures) {
+			count = addCastles(position, moves, count, us, king);
+		}
+		return count;
+	}
+
+	/**
+	 * adds pawn pushes, captures, promotions, and en passant captures (only
+	 * captures and promotions if captures is true)
+	 *
+	 * @return the new amount of moves
+	 */
+	private static int addPawnMoves(Position position, int[] moves, int count, Color us, int king, long checkMask,
+			long pinned, boolean captures) {
+		Color them = Color.getOppColor(us);
+		long pawns = position.getPieces(us, Type.PAWN);
+		int code = Position.getPieceCode(us, Type.PAWN);
+		long empty = ~position.getOccupied();
+		long enemies = position.getPieces(them);
+		boolean isWhite = us == Color.WHITE;
+		int forward = isWhite ? 8 : -8;
+		int startRow = isWhite ? 2 : 7;
+		int lastRow = isWhite ? 8 : 1;
+
+		while (pawns != 0L) {
+			int from = Long.numberOfTrailingZeros(pawns);
+			pawns &= pawns - 1;
+			long pinLine = (pinned & (1L << from)) != 0L ? Bitboards.getLine(king, from) : -1L;
+
+			// pushes
+			int to = from + forward;
+			if ((empty & (1L << to)) != 0L) {
+				if ((checkMask & pinLine & (1L << to)) != 0L && (!captures || Position.getY(to) == lastRow)) {
+					count = addPawnMove(moves, count, from, to, code, Position.EMPTY, Position.getY(to) == lastRow);
+				}
+				int jump = to + forward;
+				if (!captures && Position.getY(from) == startRow && (empty & (1L << jump)) != 0L
+						&& (checkMask & pinLine & (1L << jump)) != 0L) {
+					moves[count++] = MoveEncoder.encode(from, jump, code, Position.EMPTY, MoveEncoder.DOUBLE_PUSH);
+				}
+			}
+
+			// captures
+			long targets = Bitboards.PAWN_ATTACKS[us.ordinal()][from] & enemies & checkMask & pinLine;
+			while (targets != 0L) {
+				to = Long.numberOfTrailingZeros(targets);
+				targets &= targets - 1;
+				count = addPawnMove(moves, count, from, to, code, position.getPiece(to), Position.getY(to) == lastRow);
+			}
+
+			// en passant
+			int enPassant = position.getEnPassant();
+			if (enPassant != Position.NO_SQUARE && (Bitboards.PAWN_ATTACKS[us.ordinal()][from] & (1L << enPassant)) != 0L
+					&& isLegalEnPassant(position, from, enPassant, us, king, checkMask)) {
+				moves[count++] = MoveEncoder.encode(from, enPassant, code, Position.getPieceCode(them, Type.PAWN),
+						MoveEncoder.EN_PASSANT);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * adds a pawn move, or all four promotions if the pawn reaches the last row
+	 *
+	 * @return the new amount of moves
+	 */
+	private static int addPawnMove(int[] moves, int count, int from, int to, int code, int captured,
+			boolean promotes) {
+		if (promotes) {
+			moves[count++] = MoveEncoder.encodePromotion(from, to, code, captured, Type.QUEEN);
+			moves[count++] = MoveEncoder.encodePromotion(from, to, code, captured, Type.ROOK);
+			moves[count++] = MoveEncoder.encodePromotion(from, to, code, captured, Type.BISHOP);
+			moves[count++] = MoveEncoder.encodePromotion(from, to, code, captured, Type.KNIGHT);
+		} else {
+			moves[count++] = MoveEncoder.encode(from, to, code, captured, 0);
+		}
+		return count;
+	}
+
+	/**
+	 * en passant takes two pawns off of the same row at once, so it is tested by
+	 * looking for sliding attacks on the king after both pawns are gone
+	 *
+	 * @return true if the en passant capture is legal, false otherwise
+	 */
+	private static boolean isLegalEnPassant(Position position, int from, int to, Color us, int king,
+			long checkMask) {
+		int captured = to - (us == Color.WHITE ? 8 : -8);
+		// in check, the captured pawn has to be the checker (or the pawn has to block)
+		if ((checkMask & ((1L << captured) | (1L << to))) == 0L) {
+			return false;
+		}
+		Color them = Color.getOppColor(us);
+		long occupied = (position.getOccupied() ^ (1L << from) ^ (1L << captured)) | (1L << to);
+		long queens = position.getPieces(them, Type.QUEEN);
+
+		return (Bitboards.getRookAttacks(king, occupied) & (position.getPieces(them, Type.ROOK) | queens)) == 0L
+				&& (Bitboards.getBishopAttacks(king, occupied)
+						& (position.getPieces(them, Type.BISHOP) | queens)) == 0L;
+	}
+
+	/**
+	 * adds castling moves (the king can't be in check, pass through check, or land
+	 * in check)
+	 *
+	 * @return the new amount of moves
+	 */
+	private static int addCastles(Position position, int[] moves, int count, Color us, int king) {
+		boolean isWhite = us == Color.WHITE;
+		int castling = position.getCastling();
+		int kingSide = isWhite ? Position.WHITE_KING_SIDE : Position.BLACK_KING_SIDE;
+		int queenSide = isWhite ? Position.WHITE_QUEEN_SIDE : Position.BLACK_QUEEN_SIDE;
+		Color them = Color.getOppColor(us);
+		long occupied = position.getOccupied();
+		long rooks = position.getPieces(us, Type.ROOK);
+		int code = Position.getPieceCode(us, Type.KING);
+
+		if ((castling & kingSide) != 0 && (rooks & (1L << (king + 3))) != 0L
+				&& (Bitboards.getBetween(king, king + 3) & occupied) == 0L
+				&& !isAttacked(position, king + 1, them, occupied) && !isAttacked(position, king + 2, them, occupied)) {
+			moves[count++] = MoveEncoder.encode(king, king + 2, code, Position.EMPTY, MoveEncoder.CASTLE);
+		}
+		if ((castling & queenSide) != 0 && (rooks & (1L << (king - 4))) != 0L
+				&& (Bitboards.getBetween(king, king - 4) & occupied) == 0L
+				&& !isAttacked(position, king - 1, them, occupied) && !isAttacked(position, king - 2, them, occupied)) {
+			moves[count++] = MoveEncoder.encode(king, king - 2, code, Position.EMPTY, MoveEncoder.CASTLE);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,187 @@
+package game.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import game.Move;
+import game.Position;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         PGN writes games in Portable Game Notation, the standard way of saving
+ *         whole games so other chess programs can read them
+ *
+ *         - the tags come first ([Event "..."] and so on), then the moves in
+ *         Standard Algebraic Notation (Nf3, exd5, O-O, e8=Q+)
+ *
+ *         - games that don't start from the standard position get SetUp and FEN
+ *         tags
+ *
+ */
+public interface PGN {
+
+	public static final int LINE_LENGTH = 80;
+
+	public static final String WHITE_WINS = "1-0";
+	public static final String BLACK_WINS = "0-1";
+	public static final String DRAW = "1/2-1/2";
+	public static final String UNKNOWN = "*";
+
+	/**
+	 * writes a game as PGN
+	 *
+	 * @param tags    the game's tags in order (Event, White, Black, ...), without
+	 *                the Result, SetUp, or FEN tags
+	 * @param fen     the FEN the game started from
+	 * @param history the LinkedList of the game's moves
+	 * @param result  WHITE_WINS, BLACK_WINS, DRAW, or UNKNOWN
+	 * @return the game as PGN, ending with a blank line
+	 */
+	public static String toPGN(Map<String, String> tags, String fen, LinkedList<Move> history, String result) {
+		StringBuilder builder = new StringBuilder();
+		Map<String, String> allTags = new LinkedHashMap<String, String>(tags);
+		Position position = FEN.toPosition(fen);
+
+		// tags
+		allTags.put("Result", result);
+		if (!fen.equals(FEN.STARTING_POSITION)) {
+			allTags.put("SetUp", "1");
+			allTags.put("FEN", fen);
+		}
+		for (Map.Entry<String, String> tag : allTags.entrySet()) {
+			builder.append('[').append(tag.getKey()).append(" \"")
+					.append(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+		}
+		builder.append('\n');
+
+		// moves, wrapped so no line is too long
+		StringBuilder line = new StringBuilder();
+		String token;
+		int move;
+		boolean first = true;
+		for (Move m : history) {
+			move = MoveEncoder.encode(m);
+			token = toSAN(position, move);
+			if (position.getSideToMove() == Color.WHITE) {
+				token = position.getFullMoveNumber() + ". " + token;
+			} else if (first) {
+				token = position.getFullMoveNumber() + "... " + token;
+			}
+			first = false;
+			append(builder, line, token);
+			position.makeMove(move);
+		}
+		append(builder, line, result);
+		builder.append(line).append("\n\n");
+		return builder.toString();
+	}
+
+	/**
+	 * writes a move in Standard Algebraic Notation
+	 *
+	 * @param position the Position the move is made from (unchanged once done)
+	 * @param move     the packed legal move
+	 * @return the move in SAN (like Nbd7, exd5, O-O, e8=Q#)
+	 */
+	public static String toSAN(Position position, int move) {
+		StringBuilder builder = new StringBuilder();
+		int from = MoveEncoder.getFrom(move);
+		int to = MoveEncoder.getTo(move);
+		Type type = Position.getTypeOf(MoveEncoder.getPiece(move));
+		boolean capture = MoveEncoder.isCapture(move);
+
+		if (MoveEncoder.isCastle(move)) {
+			builder.append(to > from ? "O-O" : "O-O-O");
+		} else if (type == Type.PAWN) {
+			if (capture) {
+				builder.append((char) ('a' + Position.getX(from) - 1)).append('x');
+			}
+			builder.append(Position.getSquare(to));
+			if (MoveEncoder.isPromotion(move)) {
+				builder.append('=').append(FEN.toLetter(MoveEncoder.getPromotion(move), Color.WHITE));
+			}
+		} else {
+			builder.append(FEN.toLetter(type, Color.WHITE)).append(getDisambiguation(position, move, type));
+			if (capture) {
+				builder.append('x');
+			}
+			builder.append(Position.getSquare(to));
+		}
+
+		// check or checkmate
+		position.makeMove(move);
+		if (MoveGenerator.inCheck(position)) {
+			builder.append(MoveGenerator.hasLegalMove(position) ? '+' : '#');
+		}
+		position.unmakeMove(move);
+		return builder.toString();
+	}
+
+	/**
+	 * HELPER
+	 * METHODS---------------------------------------------------------------------------------------
+	 */
+
+	/**
+	 * finds what has to be added after a piece's letter so no other piece of the
+	 * same type could make the move: nothing, the file, the rank, or both
+	 *
+	 * @param position the Position the move is made from
+	 * @param move     the packed move
+	 * @param type     the type of the moving piece
+	 * @return the file and/or rank of the moving piece, or an empty String
+	 */
+	private static String getDisambiguation(Position position, int move, Type type) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		int from = MoveEncoder.getFrom(move);
+		int other;
+		boolean ambiguous = false;
+		boolean sameFile = false;
+		boolean sameRank = false;
+
+		for (int i = 0; i < count; i++) {
+			other = MoveEncoder.getFrom(moves[i]);
+			if (other != from && MoveEncoder.getTo(moves[i]) == MoveEncoder.getTo(move)
+					&& Position.getTypeOf(position.getPiece(other)) == type) {
+				ambiguous = true;
+				sameFile |= Position.getX(other) == Position.getX(from);
+				sameRank |= Position.getY(other) == Position.getY(from);
+			}
+		}
+
+		String square = Position.getSquare(from).toString();
+		if (!ambiguous) {
+			return "";
+		} else if (!sameFile) {
+			return square.substring(0, 1);
+		} else if (!sameRank) {
+			return square.substring(1);
+		}
+		return square;
+	}
+
+	/**
+	 * adds a token to the current line, starting a new line if it would be too
+	 * long
+	 *
+	 * @param builder the PGN written so far
+	 * @param line    the line being filled
+	 * @param token   the token being added
+	 */
+	private static void append(StringBuilder builder, StringBuilder line, String token) {
+		if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+			builder.append(line).append('\n');
+			line.setLength(0);
+		}
+		if (line.length() > 0) {
+			line.append(' ');
+		}
+		line.append(token);
+	}
+}
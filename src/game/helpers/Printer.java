@@ -16,11 +16,14 @@ import ai.AIMove;
 public interface Printer {
 
 	/**
-	 * prints the ai's best three moves
+	 * prints the ai's best three moves (their reasoning is worked out first, so
+	 * this has to be called before the board changes)
 	 * 
 	 * @param ai
 	 */
 	public static void printBestThreeMoves(AI ai) {
+		ai.explainMoves(3);
+
 		// print the 3rd best move if present
 		if (ai.getPossibleMoves().size() > 2) {
 			System.out.println("\n3rd Best Scoring Move...........................................");
@@ -0,0 +1,62 @@
+package game.helpers;
+
+import java.util.Random;
+
+import game.Position;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Zobrist holds the random numbers used to give each position a 64-bit
+ *         key. A position's key is every one of its parts' numbers XORed
+ *         together, so a move only has to XOR in what it changed
+ *
+ *         - a number for every piece code on every square
+ *
+ *         - a number for black being the player to move
+ *
+ *         - a number for every combination of castling rights
+ *
+ *         - a number for the column of the en passant square
+ *
+ */
+public final class Zobrist {
+
+	// the same seed every time, so keys are the same between runs
+	private static final long SEED = 0x2F6E2B1C9A3D4E5FL;
+
+	public static final long[][] PIECES = new long[12][64]; // [piece code][square]
+	public static final long[] CASTLING = new long[Position.ALL_CASTLING + 1];
+	public static final long[] EN_PASSANT = new long[8]; // [column]
+	public static final long BLACK_TO_MOVE;
+
+	static {
+		Random random = new Random(SEED);
+
+		for (long[] squares : PIECES) {
+			for (int i = 0; i < 64; i++) {
+				squares[i] = random.nextLong();
+			}
+		}
+		// no castling rights adds nothing, like an empty square
+		for (int i = 1; i < CASTLING.length; i++) {
+			CASTLING[i] = random.nextLong();
+		}
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+			EN_PASSANT[i] = random.nextLong();
+		}
+		BLACK_TO_MOVE = random.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * @param square the en passant square, or Position.NO_SQUARE
+	 * @return the number for the en passant square, 0 if there is none
+	 */
+	public static long getEnPassantKey(int square) {
+		return square == Position.NO_SQUARE ? 0L : EN_PASSANT[square & 7];
+	}
+}
@@ -18,6 +18,7 @@ import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 import pieces.Piece;
 import pieces.Piece.Color;
 import pieces.Piece.Type;
@@ -52,7 +53,13 @@ public class ChessDriver extends Application {
 		primaryStage.setTitle("Chess");
 
 		// setup the menu and board
-		Menu menu = new Menu(500, 300);
+		Menu menu = new Menu(500, 400);
+
+		// a game can be started from a FEN given as --fen="..."
+		String fen = getParameters().getNamed().get("fen");
+		if (fen != null) {
+			menu.getFENField().setText(fen);
+		}
 		board = new Board((Style.SQUARE_LENGTH * 10), (Style.SQUARE_LENGTH * 10));
 
 		// event handler for the play button
@@ -65,6 +72,7 @@ public class ChessDriver extends Application {
 				if (communication.isPlayingAI()) {
 					communication.initializeAI(menu);
 				}
+				communication.setStartingFEN(menu.getFENField().getText());
 				// set the board scene
 				primaryStage.setScene(board.getBoardScene());
 				// notify chessThread that the game is starting
@@ -83,11 +91,11 @@ public class ChessDriver extends Application {
 				Node node = ((Node) me.getTarget()).getParent();
 				// a square was clicked
 				if (node instanceof Square) {
-					communication.getClickedSquare().setPosition((Square) node);
+					communication.setClickedSquare(game.Square.get(((Square) node).getC(), ((Square) node).getR()));
 				}
 				// something other than a square was clicked
 				else {
-					communication.getClickedSquare().setPosition(0, 0);
+					communication.setClickedSquare(game.Square.get(0, 0));
 				}
 				// notify chess thread that a square was clicked
 				synchronized (communication) {
@@ -121,6 +129,14 @@ public class ChessDriver extends Application {
 			s.setOnMouseExited(exitHandler);
 		}
 
+		// stop the AI from thinking when the window is closed
+		primaryStage.setOnCloseRequest(new EventHandler<WindowEvent>() {
+			@Override
+			public void handle(WindowEvent we) {
+				chessThread.stopThinking();
+			}
+		});
+
 		// set the scene to the menu scene and show it
 		primaryStage.setScene(menu.getMenuScene());
 		primaryStage.show();
@@ -132,16 +148,13 @@ public class ChessDriver extends Application {
 	 * essentially converts a game.Square into a gui.Square
 	 * 
 	 * @param square the game.Square used to find the gui.Square
-	 * @return the equivalent gui.Square
+	 * @return the equivalent gui.Square, null if the square is off the board
 	 */
-	@SuppressWarnings("unlikely-arg-type")
 	public Square getSquareAtPosition(game.Square square) {
-		for (Square s : board.getSquares()) {
-			if (s.equals(square)) {
-				return s;
-			}
+		if (!square.isOnBoard()) {
+			return null;
 		}
-		return null;
+		return board.getSquares()[square.getIndex()];
 	}
 
 	/**
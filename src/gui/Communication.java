@@ -19,16 +19,18 @@ public class Communication {
 	private boolean playingAI; // true if player is playing against the ai
 	private game.Square clickedSquare; // the square that was last clicked
 	private DifficultyLevel difficulty; // the computer's difficulty
+	private int threads; // how many threads the computer thinks with
 	private Color playAs; // what color the player is playing as
 	private Type promoteTo; // what piece a pawn is promoting to
+	private String startingFEN; // the position the game starts from (blank for a new game)
 
 	public Communication() {
-		clickedSquare = new Square(0, 0);
+		clickedSquare = Square.get(0, 0);
 	}
 
 	/**
-	 * sets the playAs and difficulty fields to their correct values based on the
-	 * menu GUI
+	 * sets the playAs, difficulty, and threads fields to their correct values based
+	 * on the menu GUI
 	 * 
 	 * @param menu the source of information
 	 */
@@ -49,6 +51,8 @@ public class Communication {
 				break;
 			}
 		}
+		// threads
+		threads = Integer.parseInt(((RadioButton) menu.getThreadsToggle().getSelectedToggle()).getText());
 	}
 
 	// getters and setters
@@ -68,6 +72,22 @@ public class Communication {
 		this.difficulty = difficulty;
 	}
 
+	public String getStartingFEN() {
+		return startingFEN;
+	}
+
+	public void setStartingFEN(String startingFEN) {
+		this.startingFEN = startingFEN;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	public Color getPlayAs() {
 		return playAs;
 	}
@@ -95,7 +115,7 @@ public class Communication {
 	@Override
 	public String toString() {
 		return "Communication [playingAI=" + playingAI + ", clickedSquare=" + clickedSquare + ", difficulty="
-				+ difficulty + ", playAs=" + playAs + ", promoteTo=" + promoteTo + "]";
+				+ difficulty + ", threads=" + threads + ", playAs=" + playAs + ", promoteTo=" + promoteTo + "]";
 	}
 
 }
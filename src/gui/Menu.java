@@ -4,6 +4,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
+import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.HBox;
@@ -26,7 +27,9 @@ public class Menu {
 	private Button playHuman;
 	private Button playComputer;
 	private ToggleGroup difficultyToggle;
+	private ToggleGroup threadsToggle;
 	private ToggleGroup playAsToggle;
+	private TextField fenField;
 
 	/**
 	 * @param x width of the menu screen
@@ -52,6 +55,19 @@ public class Menu {
 		difficultyBox.setSpacing(20);
 		difficultyBox.setAlignment(Pos.CENTER);
 
+		Label threadsLabel = Style.buildLabel("Threads");
+
+		// 1, 2, 4, or 8 threads, up to the amount of cores (the most is selected)
+		threadsToggle = new ToggleGroup();
+		HBox threadsBox = new HBox();
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= 8 && threads <= cores; threads *= 2) {
+			threadsBox.getChildren().add(
+					Style.buildRadioButton(threads + "", threadsToggle, threads * 2 > Math.min(cores, 8)));
+		}
+		threadsBox.setSpacing(20);
+		threadsBox.setAlignment(Pos.CENTER);
+
 		Label playAsLabel = Style.buildLabel("Play as...");
 
 		playAsToggle = new ToggleGroup();
@@ -65,14 +81,26 @@ public class Menu {
 		VBox playComputerBox = new VBox();
 		playComputerBox.setSpacing(20);
 		playComputerBox.setAlignment(Pos.CENTER);
-		playComputerBox.getChildren().addAll(playComputer, difficultyLabel, difficultyBox, playAsLabel, playAsBox);
+		playComputerBox.getChildren().addAll(playComputer, difficultyLabel, difficultyBox, threadsLabel, threadsBox,
+				playAsLabel, playAsBox);
+
+		HBox playBox = new HBox();
+		playBox.setAlignment(Pos.CENTER);
+		playBox.setSpacing(20);
+		playBox.getChildren().addAll(playHumanBox, playComputerBox);
+
+		// start from a FEN (blank for a new game)
+		Label fenLabel = Style.buildLabel("Starting position (FEN)");
+		fenField = new TextField();
+		fenField.setPromptText("blank for a new game");
+		fenField.setMaxWidth(x - 40);
 
 		// configure root
-		HBox menuRoot = new HBox();
+		VBox menuRoot = new VBox();
 		menuRoot.setAlignment(Pos.CENTER);
 		menuRoot.setSpacing(20);
 		menuRoot.setBackground(Background.fill(Style.BACKGROUND));
-		menuRoot.getChildren().addAll(playHumanBox, playComputerBox);
+		menuRoot.getChildren().addAll(playBox, fenLabel, fenField);
 
 		// add the root to the scene
 		menuScene = new Scene(menuRoot, x, y);
@@ -99,8 +127,16 @@ public class Menu {
 		return difficultyToggle;
 	}
 
+	public ToggleGroup getThreadsToggle() {
+		return threadsToggle;
+	}
+
 	public ToggleGroup getPlayAsToggle() {
 		return playAsToggle;
 	}
 
+	public TextField getFENField() {
+		return fenField;
+	}
+
 }
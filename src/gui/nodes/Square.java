@@ -171,7 +171,7 @@ public class Square extends StackPane implements Comparable<game.Square> {
 			}
 		} else if (o instanceof game.Square) {
 			game.Square s = (game.Square) o;
-			if (getValue() == s.getValue()) {
+			if (c == s.getX() && r == s.getY()) {
 				return true;
 			}
 		}
@@ -180,7 +180,7 @@ public class Square extends StackPane implements Comparable<game.Square> {
 
 	@Override
 	public int compareTo(game.Square square) {
-		return getValue() - square.getValue();
+		return c != square.getX() ? c - square.getX() : r - square.getY();
 	}
 
 	@Override
@@ -3,6 +3,8 @@ package pieces;
 import java.util.ArrayList;
 
 import game.Square;
+import game.helpers.Bitboards;
+import game.helpers.Finder;
 
 /**
  * 
@@ -23,35 +25,22 @@ public class Bishop extends Piece {
 	}
 
 	@Override
-	public boolean hasLegalMove(Square destinationSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - destinationSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - destinationSquare.getY());
-
-		if (xDiff == yDiff) {
-			return notBlocked(getPosition(), destinationSquare, pieces) && canTake(destinationSquare, pieces)
-					&& notCheck(destinationSquare, pieces);
-		}
-		return false;
+	public boolean hasLegalMove(Square destination, ArrayList<Piece> pieces) {
+		return canSee(destination, pieces) && canTake(destination, pieces) && notCheck(destination, pieces);
 	}
 
 	@Override
 	public boolean canSupport(Square supportSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - supportSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - supportSquare.getY());
-
-		if (xDiff == yDiff) {
-			return notBlocked(getPosition(), supportSquare, pieces) && notCheck(supportSquare, pieces);
-		}
-		return false;
+		return canSee(supportSquare, pieces) && notCheck(supportSquare, pieces);
 	}
 
+	@Override
 	public boolean canSee(Square sightSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - sightSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - sightSquare.getY());
-
-		if (xDiff == yDiff) {
-			return notBlocked(getPosition(), sightSquare, pieces);
+		// the square the bishop stands on counts as seen (the AI's scoring relies on it)
+		if (getPosition().equals(sightSquare)) {
+			return true;
 		}
-		return false;
+		long attacks = Bitboards.getBishopAttacks(getIndex(), Finder.getOccupied(pieces));
+		return (attacks & Bitboards.getBit(sightSquare)) != 0L;
 	}
 }
@@ -4,7 +4,7 @@ import java.util.ArrayList;
 
 import game.EndGameCheck;
 import game.Square;
-
+import game.helpers.Bitboards;
 import game.helpers.Finder;
 
 /**
@@ -48,13 +48,13 @@ public class King extends Piece {
 		int xDiff = Math.abs(getPosition().getX() - destination.getX());
 		int yDiff = Math.abs(getPosition().getY() - destination.getY());
 
-		if ((xDiff + yDiff < 3) && ((xDiff == 1) || (yDiff == 1))) {
+		if (canSee(destination, pieces)) {
 			return canTake(destination, pieces) && notCheck(destination, pieces);
 		}
 
 		if (canCastle && xDiff == 2 && yDiff == 0) {
 			Piece rook = getCastleRook(destination, pieces);
-			Square inBetweenSquare = new Square((getPosition().getX() + destination.getX()) / 2, getPosition().getY());
+			Square inBetweenSquare = Square.get((getPosition().getX() + destination.getX()) / 2, getPosition().getY());
 
 			return rook != null && !EndGameCheck.inCheck(pieces, getColor()) && notCheck(inBetweenSquare, pieces)
 					&& notCheck(destination, pieces);
@@ -64,24 +64,12 @@ public class King extends Piece {
 
 	@Override
 	public boolean canSupport(Square supportSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - supportSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - supportSquare.getY());
-
-		if ((xDiff + yDiff < 3) && ((xDiff == 1) || (yDiff == 1))) {
-			return notCheck(supportSquare, pieces);
-		}
-		return false;
+		return canSee(supportSquare, pieces) && notCheck(supportSquare, pieces);
 	}
 
 	@Override
 	public boolean canSee(Square sightSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - sightSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - sightSquare.getY());
-
-		if ((xDiff + yDiff < 3) && ((xDiff == 1) || (yDiff == 1))) {
-			return true;
-		}
-		return false;
+		return (Bitboards.KING_ATTACKS[getIndex()] & Bitboards.getBit(sightSquare)) != 0L;
 	}
 
 	/**
@@ -3,6 +3,7 @@ package pieces;
 import java.util.ArrayList;
 
 import game.Square;
+import game.helpers.Bitboards;
 
 /**
  * 
@@ -26,34 +27,16 @@ public class Knight extends Piece {
 
 	@Override
 	public boolean hasLegalMove(Square destination, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - destination.getX());
-		int yDiff = Math.abs(getPosition().getY() - destination.getY());
-
-		if ((xDiff == 1 && yDiff == 2) || (xDiff == 2 && yDiff == 1)) {
-			return canTake(destination, pieces) && notCheck(destination, pieces);
-		}
-		return false;
+		return canSee(destination, pieces) && canTake(destination, pieces) && notCheck(destination, pieces);
 	}
 
 	@Override
 	public boolean canSupport(Square supportSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - supportSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - supportSquare.getY());
-
-		if ((xDiff == 1 && yDiff == 2) || (xDiff == 2 && yDiff == 1)) {
-			return notCheck(supportSquare, pieces);
-		}
-		return false;
+		return canSee(supportSquare, pieces) && notCheck(supportSquare, pieces);
 	}
 
 	@Override
 	public boolean canSee(Square sightSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - sightSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - sightSquare.getY());
-
-		if ((xDiff == 1 && yDiff == 2) || (xDiff == 2 && yDiff == 1)) {
-			return true;
-		}
-		return false;
+		return (Bitboards.KNIGHT_ATTACKS[getIndex()] & Bitboards.getBit(sightSquare)) != 0L;
 	}
 }
@@ -3,6 +3,7 @@ package pieces;
 import java.util.ArrayList;
 
 import game.Square;
+import game.helpers.Bitboards;
 import game.helpers.Finder;
 
 /**
@@ -82,40 +83,13 @@ public class Pawn extends Piece {
 
 	@Override
 	public boolean canSupport(Square supportSquare, ArrayList<Piece> pieces) {
-		boolean isWhite = getColor() == Color.WHITE ? true : false;
-
-		int xDiff = Math.abs(getPosition().getX() - supportSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - supportSquare.getY());
-		int yMovement = getPosition().getY() - supportSquare.getY();
-
-		// moving backwards
-		if ((isWhite && yMovement > 0) || (!isWhite && yMovement < 0)) {
-			return false;
-		}
-		// capturing diagonally
-		if (yDiff == 1 && xDiff == 1) {
-			return notCheck(supportSquare, pieces);
-		}
-		return false;
+		return canSee(supportSquare, pieces) && notCheck(supportSquare, pieces);
 	}
 
 	@Override
 	public boolean canSee(Square sightSquare, ArrayList<Piece> pieces) {
-		boolean isWhite = getColor() == Color.WHITE ? true : false;
-
-		int xDiff = Math.abs(getPosition().getX() - sightSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - sightSquare.getY());
-		int yMovement = getPosition().getY() - sightSquare.getY();
-
-		// moving backwards
-		if ((isWhite && yMovement > 0) || (!isWhite && yMovement < 0)) {
-			return false;
-		}
-		// capturing diagonally
-		if (yDiff == 1 && xDiff == 1) {
-			return true;
-		}
-		return false;
+		// pawns only see the squares they capture on (diagonally forward)
+		return (Bitboards.PAWN_ATTACKS[getColor().ordinal()][getIndex()] & Bitboards.getBit(sightSquare)) != 0L;
 	}
 
 	/**
@@ -150,6 +124,17 @@ public class Pawn extends Piece {
 	 * @return true, if this is a passed pawn. false otherwise
 	 */
 	public boolean isPassedPawn(ArrayList<Piece> pieces) {
+		return isPassedPawn(getPosition(), pieces);
+	}
+
+	/**
+	 * determines if this pawn would be a passed pawn on the given square
+	 * 
+	 * @param square the square the pawn is on (or was on)
+	 * @param pieces the ArrayList of pieces
+	 * @return true, if this would be a passed pawn. false otherwise
+	 */
+	public boolean isPassedPawn(Square square, ArrayList<Piece> pieces) {
 		Piece.Color color = getColor();
 		for (Piece p : pieces) {
 			// skip non-pawns and same color pawns
@@ -157,15 +142,15 @@ public class Pawn extends Piece {
 				continue;
 			}
 			// skip pawns not within 1 column (x)
-			if (Math.abs(p.getPosition().getX() - getPosition().getX()) > 1) {
+			if (Math.abs(p.getPosition().getX() - square.getX()) > 1) {
 				continue;
 			}
 			// for white pawns, blocking pawns have greater y position
-			if (color == Color.WHITE && p.getPosition().getY() > getPosition().getY()) {
+			if (color == Color.WHITE && p.getPosition().getY() > square.getY()) {
 				return false;
 			}
 			// for black pawns, blocking pawns have lesser y position
-			if (color == Color.BLACK && p.getPosition().getY() < getPosition().getY()) {
+			if (color == Color.BLACK && p.getPosition().getY() < square.getY()) {
 				return false;
 			}
 		}
@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import game.EndGameCheck;
 import game.Move;
 import game.Square;
+import game.helpers.Bitboards;
 import game.helpers.ConsoleColors;
-import game.helpers.Copier;
 import game.helpers.Finder;
 import game.helpers.MoveExecuter;
 
@@ -50,9 +50,6 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 	private Color color;
 	private Square position;
 
-	// AI uses this
-	public double positionWorth;
-
 	/**
 	 * @param x     the column
 	 * @param y     the row
@@ -60,10 +57,9 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 	 * @param type  the type of piece
 	 */
 	public Piece(int x, int y, Color color, Type type) {
-		position = new Square(x, y);
+		position = Square.get(x, y);
 		this.color = color;
 		this.type = type;
-		positionWorth = 0.0;
 	}
 
 	/**
@@ -72,8 +68,7 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 	public Piece(Piece pieceCopy) {
 		type = pieceCopy.getType();
 		color = pieceCopy.getColor();
-		position = new Square(pieceCopy.getPosition());
-		positionWorth = pieceCopy.positionWorth;
+		position = pieceCopy.getPosition();
 	}
 
 	/**
@@ -84,17 +79,19 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 	 * @return true if the move does not put the king in check, false otherwise
 	 */
 	protected boolean notCheck(Square destination, ArrayList<Piece> pieces) {
-		ArrayList<Piece> futurePieces = Copier.copyBoard(pieces);
-		Move move = new Move(this, destination, futurePieces);
+		Move move = new Move(this, destination, pieces);
 
 		// a move is not considered check if you just captured the king
 		if (move.getCapturePiece() != null && move.getCapturePiece().type == Type.KING) {
 			return false;
 		}
 
-		MoveExecuter.testMove(move, futurePieces);
+		// try the move on the board itself, then take it back
+		MoveExecuter.Undo undo = MoveExecuter.makeMove(move, pieces);
+		boolean inCheck = EndGameCheck.inCheck(pieces, color);
+		MoveExecuter.unmakeMove(undo, pieces);
 
-		return !EndGameCheck.inCheck(futurePieces, color);
+		return !inCheck;
 	}
 
 	/**
@@ -106,27 +103,8 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 	 * @return true if there are no pieces in the way
 	 */
 	protected boolean notBlocked(Square start, Square destination, ArrayList<Piece> pieces) {
-		int xDirection = (destination.getX() > start.getX()) ? 1 : -1;
-		if (destination.getX() == start.getX()) {
-			xDirection = 0;
-		}
-
-		int yDirection = (destination.getY() > start.getY()) ? 1 : -1;
-		if (destination.getY() == start.getY()) {
-			yDirection = 0;
-		}
-		// start the search with the next square along search path
-		int x = start.getX() + xDirection; // current x position
-		int y = start.getY() + yDirection; // current y position
-
-		while (!destination.equals(x, y)) {
-			if (Finder.isPieceOnSquare(x, y, pieces)) {
-				return false;
-			}
-			x += xDirection;
-			y += yDirection;
-		}
-		return true;
+		long between = Bitboards.getBetween(start.getIndex(), destination.getIndex());
+		return (between & Finder.getOccupied(pieces)) == 0L;
 	}
 
 	/**
@@ -209,12 +187,16 @@ public abstract class Piece implements Comparable<Piece>, ConsoleColors {
 		return position;
 	}
 
+	public int getIndex() {
+		return position.getIndex();
+	}
+
 	public void setPosition(Square newPosition) {
-		position.setPosition(newPosition);
+		position = newPosition;
 	}
 
 	public void setPosition(int x, int y) {
-		position.setPosition(x, y);
+		position = Square.get(x, y);
 	}
 
 	public Color getColor() {
@@ -3,6 +3,8 @@ package pieces;
 import java.util.ArrayList;
 
 import game.Square;
+import game.helpers.Bitboards;
+import game.helpers.Finder;
 
 /**
  * 
@@ -28,35 +30,18 @@ public class Rook extends Piece {
 
 	@Override
 	public boolean hasLegalMove(Square destination, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - destination.getX());
-		int yDiff = Math.abs(getPosition().getY() - destination.getY());
-
-		if ((xDiff == 0 && yDiff > 0) || (xDiff > 0 && yDiff == 0)) {
-			return notBlocked(getPosition(), destination, pieces) && canTake(destination, pieces)
-					&& notCheck(destination, pieces);
-		}
-		return false;
+		return canSee(destination, pieces) && canTake(destination, pieces) && notCheck(destination, pieces);
 	}
 
 	@Override
 	public boolean canSupport(Square supportSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - supportSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - supportSquare.getY());
-
-		if ((xDiff == 0 && yDiff > 0) || (xDiff > 0 && yDiff == 0)) {
-			return notBlocked(getPosition(), supportSquare, pieces) && notCheck(supportSquare, pieces);
-		}
-		return false;
+		return canSee(supportSquare, pieces) && notCheck(supportSquare, pieces);
 	}
 
+	@Override
 	public boolean canSee(Square sightSquare, ArrayList<Piece> pieces) {
-		int xDiff = Math.abs(getPosition().getX() - sightSquare.getX());
-		int yDiff = Math.abs(getPosition().getY() - sightSquare.getY());
-
-		if ((xDiff == 0 && yDiff > 0) || (xDiff > 0 && yDiff == 0)) {
-			return notBlocked(getPosition(), sightSquare, pieces);
-		}
-		return false;
+		long attacks = Bitboards.getRookAttacks(getIndex(), Finder.getOccupied(pieces));
+		return (attacks & Bitboards.getBit(sightSquare)) != 0L;
 	}
 
 	// getters and setters
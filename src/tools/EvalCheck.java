@@ -0,0 +1,274 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import ai.Logger;
+import ai.analyzer.BoardAnalyzer;
+import ai.analyzer.Exchange;
+import ai.difficulty.BestBot;
+import ai.difficulty.Difficulty;
+import ai.difficulty.NoobBot;
+import ai.search.StaticExchange;
+import game.AttackMap;
+import game.KeyHistory;
+import game.Position;
+import game.helpers.FEN;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveExecuter;
+import game.helpers.MoveGenerator;
+import pieces.Piece;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         EvalCheck compares the parts of the evaluation that are worked out in
+ *         two different ways, on fixed positions, so a change to one of them
+ *         that the other doesn't agree with is found. It runs without the GUI
+ *
+ *         - exchanges: the root analysis (Exchange) and the search
+ *         (StaticExchange) have to find the same material for simple exchanges
+ *         (no pins, no kings taking part), which both were written for
+ *
+ *         - attack maps: an AttackMap kept up to date through two moves (and
+ *         taken back) has to match one made from scratch after every move
+ *
+ *         - point totals: the PointTotal of a tested move, which only scores
+ *         the changed squares again, has to match scoring every piece, for
+ *         both Difficulties
+ *
+ *         usage: java tools.EvalCheck
+ *
+ */
+public class EvalCheck {
+
+	// FEN, the square the side to move takes on, the material it wins in centipawns
+	private static final Object[][] EXCHANGES = {
+			{ "4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1", "d5", 300 }, // an undefended piece
+			{ "4k3/8/8/4p3/3Q4/8/8/4K3 b - - 0 1", "d4", 900 },
+			{ "4k3/8/4p3/3n4/8/5B2/8/4K3 w - - 0 1", "d5", 0 }, // a fair trade
+			{ "4k3/8/4p3/3p4/8/2N5/8/4K3 w - - 0 1", "d5", -200 },
+			{ "4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d5", -800 },
+			{ "4k3/8/4p3/3n4/2P5/5B2/8/4K3 w - - 0 1", "d5", 300 }, // the least valuable piece takes
+			{ "3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d5", 100 } }; // a rook x-rays through the other
+
+	// positions with every kind of move (the perft positions), and late games
+	private static final String[] POSITIONS = { FEN.STARTING_POSITION,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+			"8/5k2/8/3K4/8/8/1R6/8 w - - 0 1", "8/8/4k3/8/2Q5/8/5PP1/6K1 b - - 0 1" };
+
+	private static final double TOLERANCE = 1e-9;
+
+	public static void main(String[] args) {
+		boolean allPassed = checkExchanges();
+		allPassed &= checkAttackMaps();
+		allPassed &= checkPointTotals();
+		System.exit(allPassed ? 0 : 1);
+	}
+
+	/**
+	 * finds each exchange with Exchange and with StaticExchange, and compares both
+	 * to the known material
+	 *
+	 * @return true if every exchange was right, false otherwise
+	 */
+	public static boolean checkExchanges() {
+		boolean allPassed = true;
+		int[] gains = new int[StaticExchange.MAX_EXCHANGE];
+
+		for (Object[] exchange : EXCHANGES) {
+			String fen = (String) exchange[0];
+			int square = FEN.toIndex((String) exchange[1]);
+			int expected = (Integer) exchange[2];
+
+			// the search takes with its least valuable piece
+			Position position = FEN.toPosition(fen);
+			int capture = getLeastValuableCapture(position, square);
+			int searchGain = capture == MoveEncoder.NO_MOVE ? 0 : StaticExchange.evaluate(position, capture, gains);
+
+			// the root analysis looks at the danger to the piece being taken
+			ArrayList<Piece> pieces = FEN.toPieces(fen);
+			Exchange danger = new Exchange(new AttackMap(pieces), Logger.SILENT);
+			int rootGain = 0;
+			for (Piece p : pieces) {
+				if (p.getIndex() == square) {
+					danger.evaluate(p);
+					rootGain = (int) Math.round(-danger.getLoss() * 100);
+				}
+			}
+
+			boolean passed = searchGain == expected && rootGain == expected;
+			allPassed &= passed;
+			System.out.println((passed ? "PASS" : "FAIL") + "  exchange on " + exchange[1] + "  " + fen);
+			if (!passed) {
+				System.out.println("      expected " + expected + ", search " + searchGain + ", root " + rootGain);
+			}
+		}
+
+		System.out.println();
+		System.out.println(allPassed ? "All exchanges passed" : "SOME EXCHANGES FAILED");
+		return allPassed;
+	}
+
+	/**
+	 * plays every move to a depth of two on each position's pieces, comparing the
+	 * AttackMap kept up to date by MoveExecuter to a new one after every move and
+	 * every move taken back
+	 *
+	 * @return true if every AttackMap matched, false otherwise
+	 */
+	public static boolean checkAttackMaps() {
+		boolean allPassed = true;
+
+		for (String fen : POSITIONS) {
+			ArrayList<Piece> pieces = FEN.toPieces(fen);
+			int mismatches = checkAttackMaps(FEN.toPosition(fen), pieces, new AttackMap(pieces), 2);
+
+			boolean passed = mismatches == 0;
+			allPassed &= passed;
+			System.out.println((passed ? "PASS" : "FAIL") + "  attack maps  " + fen);
+			if (!passed) {
+				System.out.println("      " + mismatches + " attack maps didn't match");
+			}
+		}
+
+		System.out.println();
+		System.out.println(allPassed ? "All attack maps passed" : "SOME ATTACK MAPS FAILED");
+		return allPassed;
+	}
+
+	/**
+	 * @param position  the Position matching the pieces (to find the moves)
+	 * @param pieces    the ArrayList<Piece> of pieces
+	 * @param attackMap the AttackMap kept up to date with the pieces
+	 * @param depth     the amount of moves left to play
+	 * @return the amount of times the AttackMap didn't match a new one
+	 */
+	private static int checkAttackMaps(Position position, ArrayList<Piece> pieces, AttackMap attackMap, int depth) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		int mismatches = 0;
+		MoveExecuter.Undo undo;
+
+		for (int i = 0; i < count; i++) {
+			undo = MoveExecuter.makeMove(moves[i], pieces, attackMap);
+			position.makeMove(moves[i]);
+			if (!isSame(attackMap, new AttackMap(pieces))) {
+				mismatches++;
+			}
+			if (depth > 1) {
+				mismatches += checkAttackMaps(position, pieces, attackMap, depth - 1);
+			}
+
+			position.unmakeMove(moves[i]);
+			MoveExecuter.unmakeMove(undo, pieces, attackMap);
+			if (!isSame(attackMap, new AttackMap(pieces))) {
+				mismatches++;
+			}
+		}
+		return mismatches;
+	}
+
+	/**
+	 * @param attackMap the AttackMap being checked
+	 * @param expected  the AttackMap it should match
+	 * @return true if both have the same pieces, attacks, and kings
+	 */
+	private static boolean isSame(AttackMap attackMap, AttackMap expected) {
+		if (attackMap.getOccupied() != expected.getOccupied()) {
+			return false;
+		}
+		for (int square = 0; square < 64; square++) {
+			if (attackMap.getPiece(square) != expected.getPiece(square)
+					|| attackMap.getAttacks(square) != expected.getAttacks(square)) {
+				return false;
+			}
+		}
+		for (Color color : Color.values()) {
+			if (attackMap.getKingSquare(color) != expected.getKingSquare(color)) {
+				return false;
+			}
+			for (Type type : Type.values()) {
+				if (attackMap.getPieces(color, type) != expected.getPieces(color, type)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * tests every move of each position with each Difficulty, comparing the
+	 * PointTotal made from the board before the move to scoring every piece again
+	 *
+	 * @return true if every PointTotal matched, false otherwise
+	 */
+	public static boolean checkPointTotals() {
+		boolean allPassed = true;
+		Difficulty[] difficulties = { new BestBot(), new NoobBot() };
+
+		for (Difficulty settings : difficulties) {
+			for (String fen : POSITIONS) {
+				Position position = FEN.toPosition(fen);
+				ArrayList<Piece> pieces = FEN.toPieces(fen);
+				BoardAnalyzer current = new BoardAnalyzer(pieces, position.getHalfMoveClock(), position.getSideToMove(),
+						settings);
+				int[] moves = new int[MoveGenerator.MAX_MOVES];
+				int count = MoveGenerator.getLegalMoves(position, moves);
+				int mismatches = 0;
+
+				for (int i = 0; i < count; i++) {
+					BoardAnalyzer tested = new BoardAnalyzer(current, pieces, new KeyHistory(), moves[i],
+							new Random(0), false);
+					double expected = tested.new PointTotal(pieces).getDifference();
+					if (Math.abs(tested.getFutureScore() - expected) > TOLERANCE) {
+						mismatches++;
+					}
+					tested.undoMove();
+				}
+
+				boolean passed = mismatches == 0;
+				allPassed &= passed;
+				System.out.println((passed ? "PASS" : "FAIL") + "  point totals  "
+						+ settings.getClass().getSimpleName() + "  " + fen);
+				if (!passed) {
+					System.out.println("      " + mismatches + " of " + count + " moves didn't match");
+				}
+			}
+		}
+
+		System.out.println();
+		System.out.println(allPassed ? "All point totals passed" : "SOME POINT TOTALS FAILED");
+		return allPassed;
+	}
+
+	/**
+	 * @param position the Position the capture is made from
+	 * @param square   the square being taken on
+	 * @return the legal packed capture on the square with the least valuable
+	 *         piece, NO_MOVE if there is none
+	 */
+	private static int getLeastValuableCapture(Position position, int square) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		int capture = MoveEncoder.NO_MOVE;
+		int value;
+		int bestValue = Integer.MAX_VALUE;
+
+		for (int i = 0; i < count; i++) {
+			value = StaticExchange.getValue(Position.getTypeOf(MoveEncoder.getPiece(moves[i])));
+			if (MoveEncoder.getTo(moves[i]) == square && value < bestValue) {
+				capture = moves[i];
+				bestValue = value;
+			}
+		}
+		return capture;
+	}
+}
@@ -0,0 +1,467 @@
+package tools;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ai.AI;
+import ai.AIMove;
+import ai.AnalysisListener;
+import ai.difficulty.Difficulty.DifficultyLevel;
+import game.Adjudicator;
+import game.EndGameCheck.Ending;
+import game.Position;
+import game.StandardGame;
+import game.helpers.FEN;
+import game.helpers.JSON;
+import game.helpers.MoveGenerator;
+import game.helpers.PGN;
+import pieces.Piece.Color;
+import pieces.Piece.Type;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         MatchRunner plays many games between two AIs without the GUI, to find
+ *         out if a change made the AI stronger. Games are played on every core
+ *         at once with StandardGame's turn loop and end the same way a normal
+ *         game does
+ *
+ *         - each opening is a few random legal moves, and is played twice so
+ *         each AI gets both colors
+ *
+ *         - games where one side stays far ahead in material are resigned, and
+ *         games that run too long are drawn
+ *
+ *         - the result is printed as wins, losses, and draws for the first AI,
+ *         its Elo difference with a 95% error bar, and games per hour. Games
+ *         can also be saved as PGN
+ *
+ *         - the scores of every possible move can be saved as JSON lines, one
+ *         line per move with its game, ply, position, rank (0 for the move
+ *         played), and the points from each part of its score
+ *
+ *         usage: java tools.MatchRunner [-engine1 BESTBOT] [-engine2 NOOBBOT]
+ *         [-games 100] [-concurrency cores] [-openingplies 8] [-movetime 0]
+ *         [-seed random] [-pgn file] [-records file] [-resign 9]
+ *         [-resignplies 6] [-maxplies 300]
+ *
+ */
+public class MatchRunner {
+
+	private static final double Z_95 = 1.96; // standard errors in a 95% error bar
+
+	private PrintStream out; // the real stdout
+	private DifficultyLevel engine1;
+	private DifficultyLevel engine2;
+	private int games;
+	private int concurrency;
+	private int openingPlies;
+	private long moveTime; // 0 to search to the Difficulty's depth
+	private long seed;
+	private String pgnFile;
+	private String recordsFile; // where the move records are saved, or null
+	private double resignMaterial; // how far behind a side resigns
+	private int resignPlies; // how many moves in a row a side has to be that far behind
+	private int maxPlies; // the game is drawn after this many moves
+
+	private int wins; // for engine1
+	private int losses;
+	private int draws;
+
+	public MatchRunner() {
+		out = new PrintStream(new FileOutputStream(FileDescriptor.out), true);
+		engine1 = DifficultyLevel.BESTBOT;
+		engine2 = DifficultyLevel.NOOBBOT;
+		games = 100;
+		concurrency = Runtime.getRuntime().availableProcessors();
+		openingPlies = 8;
+		moveTime = 0;
+		seed = new Random().nextLong();
+		resignMaterial = 9.0;
+		resignPlies = 6;
+		maxPlies = 300;
+	}
+
+	public static void main(String[] args) {
+		MatchRunner runner = new MatchRunner();
+		try {
+			runner.readArguments(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("usage: java tools.MatchRunner [-engine1 BESTBOT] [-engine2 NOOBBOT] [-games 100]"
+					+ " [-concurrency cores] [-openingplies 8] [-movetime 0] [-seed random] [-pgn file]"
+					+ " [-records file] [-resign 9] [-resignplies 6] [-maxplies 300]");
+			System.exit(2);
+		}
+
+		try {
+			runner.run();
+		} catch (IOException | InterruptedException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * reads the options given on the command line
+	 *
+	 * @param args pairs of option names and values
+	 * @throws IllegalArgumentException if an option can't be read
+	 */
+	private void readArguments(String[] args) {
+		if (args.length % 2 != 0) {
+			throw new IllegalArgumentException("every option needs a value");
+		}
+		for (int i = 0; i < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+			case "-engine1":
+				engine1 = DifficultyLevel.valueOf(value.toUpperCase());
+				break;
+			case "-engine2":
+				engine2 = DifficultyLevel.valueOf(value.toUpperCase());
+				break;
+			case "-games":
+				games = Integer.parseInt(value);
+				break;
+			case "-concurrency":
+				concurrency = Integer.parseInt(value);
+				break;
+			case "-openingplies":
+				openingPlies = Integer.parseInt(value);
+				break;
+			case "-movetime":
+				moveTime = Long.parseLong(value);
+				break;
+			case "-seed":
+				seed = Long.parseLong(value);
+				break;
+			case "-pgn":
+				pgnFile = value;
+				break;
+			case "-records":
+				recordsFile = value;
+				break;
+			case "-resign":
+				resignMaterial = Double.parseDouble(value);
+				break;
+			case "-resignplies":
+				resignPlies = Integer.parseInt(value);
+				break;
+			case "-maxplies":
+				maxPlies = Integer.parseInt(value);
+				break;
+			default:
+				throw new IllegalArgumentException("unknown option: " + args[i]);
+			}
+		}
+		if (games < 1 || concurrency < 1 || openingPlies < 0 || moveTime < 0 || resignPlies < 1 || maxPlies < 1) {
+			throw new IllegalArgumentException("options must not be negative, and counts must be at least 1");
+		}
+	}
+
+	/**
+	 * plays the match, printing each game as it finishes and the results at the
+	 * end
+	 *
+	 * @throws IOException          if the PGN or records file can't be written
+	 * @throws InterruptedException if the match is interrupted
+	 */
+	public void run() throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		CompletionService<Game> completionService = new ExecutorCompletionService<Game>(executor);
+		Writer pgn = pgnFile == null ? null : new FileWriter(pgnFile);
+		Writer records = recordsFile == null ? null : new FileWriter(recordsFile);
+		long startTime = System.currentTimeMillis();
+		String opening = null;
+
+		out.println("Match: " + engine1 + " vs " + engine2 + ", " + games + " games on " + concurrency
+				+ " threads, seed " + seed);
+		for (int i = 0; i < games; i++) {
+			// each opening is played twice, with the colors switched
+			if (i % 2 == 0) {
+				opening = getRandomOpening(new Random(seed + i));
+			}
+			completionService.submit(new Game(i + 1, opening, i % 2 == 0));
+		}
+
+		Game game;
+		for (int i = 0; i < games; i++) {
+			try {
+				game = completionService.take().get();
+			} catch (ExecutionException e) {
+				System.err.println("A game failed: " + e.getCause());
+				e.getCause().printStackTrace();
+				continue;
+			}
+			addResult(game.getScore());
+			out.println("Game " + game.number + ": " + game.getResult() + " (" + game.ending.message + ", "
+					+ game.plies + " plies)  " + getScoreLine());
+			if (pgn != null) {
+				pgn.write(game.pgn);
+				pgn.flush();
+			}
+			if (records != null) {
+				records.write(game.records.toString());
+				records.flush();
+			}
+		}
+		executor.shutdown();
+		if (pgn != null) {
+			pgn.close();
+		}
+		if (records != null) {
+			records.close();
+		}
+
+		printResults(System.currentTimeMillis() - startTime);
+	}
+
+	/**
+	 * plays random legal moves from the starting position
+	 *
+	 * @param random where the moves are picked from
+	 * @return the FEN of a position that isn't over after openingPlies moves
+	 */
+	private String getRandomOpening(Random random) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		Position position;
+		int count;
+
+		while (true) {
+			position = FEN.toPosition(FEN.STARTING_POSITION);
+			for (int ply = 0; ply < openingPlies; ply++) {
+				count = MoveGenerator.getLegalMoves(position, moves);
+				if (count == 0) {
+					break;
+				}
+				position.makeMove(moves[random.nextInt(count)]);
+			}
+			if (MoveGenerator.hasLegalMove(position)) {
+				return FEN.toFEN(position);
+			}
+		}
+	}
+
+	/**
+	 * @param score 1 for an engine1 win, 0.5 for a draw, 0 for a loss
+	 */
+	private synchronized void addResult(double score) {
+		if (score == 1) {
+			wins++;
+		} else if (score == 0) {
+			losses++;
+		} else {
+			draws++;
+		}
+	}
+
+	/**
+	 * prints the final results: the score, Elo difference, and speed
+	 *
+	 * @param time how long the match took in milliseconds
+	 */
+	private void printResults(long time) {
+		int played = wins + losses + draws;
+		out.println();
+		out.println("Results of " + engine1 + " vs " + engine2 + ": " + getScoreLine());
+		if (played == 0) {
+			return;
+		}
+
+		// the error bar comes from how much the game scores vary
+		double score = (wins + draws / 2.0) / played;
+		double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+				+ losses * Math.pow(score, 2)) / played;
+		double error = Z_95 * Math.sqrt(variance / played);
+		double elo = getElo(score);
+		double errorBar = (getElo(score + error) - getElo(score - error)) / 2;
+
+		out.printf("Score: %.1f%%%n", score * 100);
+		out.printf("Elo difference: %.1f +/- %.1f (95%%)%n", elo, errorBar);
+		out.printf("Games per hour: %.0f (%d games in %.1f s)%n", played * 3600000.0 / Math.max(time, 1), played,
+				time / 1000.0);
+	}
+
+	/**
+	 * @return engine1's wins, losses, and draws (like +10 -4 =6)
+	 */
+	private synchronized String getScoreLine() {
+		return "+" + wins + " -" + losses + " =" + draws;
+	}
+
+	/**
+	 * @param score the share of points scored (0 to 1)
+	 * @return the Elo difference that expects that score (capped at +/- 1000)
+	 */
+	private static double getElo(double score) {
+		score = Math.min(Math.max(score, 1e-4), 1 - 1e-4);
+		return Math.max(Math.min(-400 * Math.log10(1 / score - 1), 1000), -1000);
+	}
+
+	/**
+	 * Game is one game of the match, played on one of the executor's threads. It
+	 * also records the AIs' move scores, if they're being saved
+	 */
+	private class Game implements Callable<Game>, AnalysisListener {
+
+		private int number;
+		private String fen; // the opening the game starts from
+		private boolean engine1White;
+		private Ending ending;
+		private Color winner;
+		private int plies;
+		private String pgn;
+		private StringBuilder records; // the JSON lines of every scored move
+		private int recordedPlies; // moves made since the opening
+
+		/**
+		 * @param number       the game's number in the match (from 1)
+		 * @param fen          the opening the game starts from
+		 * @param engine1White true if engine1 plays white
+		 */
+		public Game(int number, String fen, boolean engine1White) {
+			this.number = number;
+			this.fen = fen;
+			this.engine1White = engine1White;
+			records = new StringBuilder();
+		}
+
+		@Override
+		public Game call() {
+			DifficultyLevel white = engine1White ? engine1 : engine2;
+			DifficultyLevel black = engine1White ? engine2 : engine1;
+			StandardGame game = new StandardGame(createAI(Color.WHITE, white), createAI(Color.BLACK, black), fen);
+
+			game.setAdjudicator(new MaterialAdjudicator());
+			game.playGame();
+			ending = game.getEnding();
+			winner = game.getWinner();
+			plies = game.getHistory().size();
+
+			LinkedHashMap<String, String> tags = new LinkedHashMap<String, String>();
+			tags.put("Event", "MatchRunner " + engine1 + " vs " + engine2);
+			tags.put("Site", "?");
+			tags.put("Round", Integer.toString(number));
+			tags.put("White", white.toString());
+			tags.put("Black", black.toString());
+			tags.put("Termination", ending.message);
+			pgn = PGN.toPGN(tags, fen, game.getHistory(), getResult());
+			return this;
+		}
+
+		/**
+		 * creates an AI that searches on this thread only
+		 *
+		 * @param color the color the AI plays
+		 * @param level the AI's difficulty
+		 * @return the initialized AI
+		 */
+		private AI createAI(Color color, DifficultyLevel level) {
+			AI ai = new AI();
+			ai.setParallel(false);
+			ai.setThreads(1);
+			ai.setTracing(false); // the reasoning would bury the results
+			ai.initialize(color, level);
+			ai.setSeed(seed * 31 + number * 2 + color.ordinal());
+			ai.setMoveTime(moveTime);
+			if (recordsFile != null) {
+				ai.setListener(this);
+			}
+			return ai;
+		}
+
+		@Override
+		public void moveAnalyzed(AI ai, Position position, ArrayList<AIMove> possibleMoves) {
+			boolean engine1Moved = (ai.getColor() == Color.WHITE) == engine1White;
+			String positionFEN = FEN.toFEN(position);
+			LinkedHashMap<String, Object> record;
+
+			for (int i = 0; i < possibleMoves.size(); i++) {
+				record = new LinkedHashMap<String, Object>();
+				record.put("game", number);
+				record.put("ply", recordedPlies);
+				record.put("engine", engine1Moved ? engine1.toString() : engine2.toString());
+				record.put("color", ai.getColor().toString());
+				record.put("fen", positionFEN);
+				record.put("rank", i);
+				record.putAll(possibleMoves.get(i).getRecord());
+				records.append(JSON.toJSON(record)).append('\n');
+			}
+			recordedPlies++;
+		}
+
+		/**
+		 * @return the game's result as PGN writes it
+		 */
+		public String getResult() {
+			if (winner == null) {
+				return PGN.DRAW;
+			}
+			return winner == Color.WHITE ? PGN.WHITE_WINS : PGN.BLACK_WINS;
+		}
+
+		/**
+		 * @return 1 if engine1 won, 0.5 for a draw, 0 if engine1 lost
+		 */
+		public double getScore() {
+			if (winner == null) {
+				return 0.5;
+			}
+			return (winner == Color.WHITE) == engine1White ? 1 : 0;
+		}
+	}
+
+	/**
+	 * MaterialAdjudicator resigns for a side that has been far behind in material
+	 * for several moves in a row, and draws games that run too long
+	 */
+	private class MaterialAdjudicator implements Adjudicator {
+
+		private int behindPlies; // how many moves in a row someone has been far behind
+
+		@Override
+		public Ending adjudicate(Position position, int plies) {
+			if (plies >= maxPlies) {
+				return Ending.ADJUDICATED_DRAW;
+			}
+
+			Color toMove = position.getSideToMove();
+			double balance = getMaterial(position, toMove) - getMaterial(position, Color.getOppColor(toMove));
+			behindPlies = Math.abs(balance) >= resignMaterial ? behindPlies + 1 : 0;
+
+			// only the player to move can resign
+			if (behindPlies >= resignPlies && balance < 0) {
+				return Ending.RESIGNATION;
+			}
+			return Ending.NOT_OVER;
+		}
+
+		/**
+		 * @param position the Position being counted
+		 * @param color    the color whose pieces are counted
+		 * @return the worth of the color's pieces
+		 */
+		private double getMaterial(Position position, Color color) {
+			double material = 0;
+			for (Type type : Position.TYPES) {
+				material += Long.bitCount(position.getPieces(color, type)) * type.worth;
+			}
+			return material;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package tools;
+
+import java.util.Arrays;
+
+import game.Position;
+import game.helpers.FEN;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         Perft counts every position the move generator reaches to a given
+ *         depth. The counts are compared against known numbers to find move
+ *         generation bugs, and timed to see how fast the generator is. It runs
+ *         without the GUI
+ *
+ *         - with no arguments, the standard reference positions are checked
+ *
+ *         - with a depth (and optionally a FEN), the count under each root move
+ *         is printed (divide), so a wrong count can be tracked down to a move
+ *
+ *         usage: java tools.Perft [depth [FEN]]
+ *
+ */
+public class Perft {
+
+	private static final int MAX_DEPTH = 32;
+
+	// FEN, depth, expected count
+	private static final Object[][] REFERENCE_POSITIONS = {
+			{ FEN.STARTING_POSITION, 5, 4865609L },
+			{ "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4, 4085603L }, // kiwipete
+			{ "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674624L },
+			{ "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422333L },
+			{ "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4, 2103487L },
+			{ "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 4, 3894594L } };
+
+	private Position position;
+	private int[][] moveLists; // a move list for each ply, so counting doesn't create arrays
+
+	/**
+	 * @param position the Position counted from (unchanged once done)
+	 */
+	public Perft(Position position) {
+		this.position = position;
+		moveLists = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.exit(checkReferencePositions() ? 0 : 1);
+		}
+
+		try {
+			int depth = Integer.parseInt(args[0]);
+			String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
+					: FEN.STARTING_POSITION;
+			if (depth < 1 || depth > MAX_DEPTH) {
+				throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH);
+			}
+			new Perft(FEN.toPosition(fen)).divide(depth);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("usage: java tools.Perft [depth [FEN]]");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * counts the positions to the given depth
+	 *
+	 * @param depth the amount of moves to play (at least 1)
+	 * @return the amount of positions at the given depth
+	 */
+	public long count(int depth) {
+		return count(depth, 0);
+	}
+
+	/**
+	 * @param depth the amount of moves left to play
+	 * @param ply   the amount of moves already played
+	 * @return the amount of positions at the given depth
+	 */
+	private long count(int depth, int ply) {
+		int[] moves = moveLists[ply];
+		int amount = MoveGenerator.getLegalMoves(position, moves);
+
+		// the last moves don't have to be played to be counted
+		if (depth == 1) {
+			return amount;
+		}
+
+		long nodes = 0;
+		for (int i = 0; i < amount; i++) {
+			position.makeMove(moves[i]);
+			nodes += count(depth - 1, ply + 1);
+			position.unmakeMove(moves[i]);
+		}
+		return nodes;
+	}
+
+	/**
+	 * prints the count under each root move, then the total and speed
+	 *
+	 * @param depth the amount of moves to play (at least 1)
+	 * @return the amount of positions at the given depth
+	 */
+	public long divide(int depth) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int amount = MoveGenerator.getLegalMoves(position, moves);
+		long start = System.nanoTime();
+		long nodes = 0;
+		long moveNodes;
+
+		for (int i = 0; i < amount; i++) {
+			if (depth == 1) {
+				moveNodes = 1;
+			} else {
+				position.makeMove(moves[i]);
+				moveNodes = count(depth - 1, 1);
+				position.unmakeMove(moves[i]);
+			}
+			nodes += moveNodes;
+			System.out.println(MoveEncoder.toString(moves[i]) + ": " + moveNodes);
+		}
+
+		System.out.println();
+		System.out.println("Moves: " + amount);
+		printResult(nodes, System.nanoTime() - start);
+		return nodes;
+	}
+
+	/**
+	 * counts each reference position to its depth and compares the count to the
+	 * known number
+	 *
+	 * @return true if every count was right, false otherwise
+	 */
+	public static boolean checkReferencePositions() {
+		boolean allPassed = true;
+		long totalNodes = 0;
+		long totalTime = 0;
+
+		for (Object[] reference : REFERENCE_POSITIONS) {
+			String fen = (String) reference[0];
+			int depth = (Integer) reference[1];
+			long expected = (Long) reference[2];
+
+			long start = System.nanoTime();
+			long nodes = new Perft(FEN.toPosition(fen)).count(depth);
+			long time = System.nanoTime() - start;
+			totalNodes += nodes;
+			totalTime += time;
+
+			boolean passed = nodes == expected;
+			allPassed &= passed;
+			System.out.println((passed ? "PASS" : "FAIL") + "  depth " + depth + "  " + fen);
+			if (!passed) {
+				System.out.println("      expected " + expected + ", counted " + nodes);
+			}
+			printResult(nodes, time);
+		}
+
+		System.out.println();
+		System.out.println(allPassed ? "All positions passed" : "SOME POSITIONS FAILED");
+		printResult(totalNodes, totalTime);
+		return allPassed;
+	}
+
+	/**
+	 * prints the amount of nodes, how long they took, and the nodes per second
+	 *
+	 * @param nodes the amount of positions counted
+	 * @param nanos how long counting took in nanoseconds
+	 */
+	private static void printResult(long nodes, long nanos) {
+		long nps = nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+		System.out.println("Nodes: " + nodes + "  Time: " + nanos / 1000000 + " ms  NPS: " + nps);
+	}
+}
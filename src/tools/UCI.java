@@ -0,0 +1,427 @@
+package tools;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import ai.AI;
+import ai.AIMove;
+import ai.difficulty.Difficulty.DifficultyLevel;
+import ai.search.SearchListener;
+import ai.search.Searcher;
+import ai.search.TranspositionTable;
+import game.KeyHistory;
+import game.Move;
+import game.Position;
+import game.helpers.Converter;
+import game.helpers.FEN;
+import game.helpers.MoveEncoder;
+import game.helpers.MoveGenerator;
+import game.helpers.Printer;
+import pieces.Piece;
+import pieces.Piece.Color;
+
+/**
+ *
+ * @author John Hoffmann
+ *
+ *         UCI lets other programs (chess GUIs, engine matches, servers) play
+ *         against the AI by talking the Universal Chess Interface over stdin
+ *         and stdout. No GUI classes are loaded
+ *
+ *         - commands: uci, debug, isready, setoption, ucinewgame, position, go,
+ *         stop, quit
+ *
+ *         - options: Difficulty, Threads, Hash
+ *
+ *         - go understands wtime, btime, winc, binc, movetime and infinite.
+ *         Without a time, the AI searches to its Difficulty's depth
+ *
+ *         - while searching, an info line (depth, score, nodes, nps, time, pv)
+ *         is sent for each depth the search finishes
+ *
+ *         - with debug on, the AI prints the reasoning for its best moves to
+ *         System.out, so System.out is sent to stderr and only UCI goes to
+ *         stdout
+ *
+ *         usage: java tools.UCI
+ *
+ */
+public class UCI implements SearchListener {
+
+	private static final int MATE_BOUND = Searcher.MATE - 1000; // scores past this are mates
+
+	private PrintStream out; // the real stdout
+	private AI ai;
+
+	// options
+	private DifficultyLevel difficulty;
+	private int threads;
+	private int hashSize;
+	private boolean debug; // true if the AI's reasoning is printed
+
+	// the position to search from
+	private Position position;
+	private ArrayList<Piece> pieces;
+	private LinkedList<Move> history;
+	private KeyHistory keyHistory;
+
+	// searching
+	private Thread searchThread;
+	private volatile boolean stopRequested;
+	private boolean infinite; // the best move isn't sent until stop
+
+	/**
+	 * @param out where UCI is written
+	 */
+	public UCI(PrintStream out) {
+		this.out = out;
+		difficulty = DifficultyLevel.BESTBOT;
+		threads = 1;
+		hashSize = TranspositionTable.DEFAULT_SIZE_MB;
+		setPosition(FEN.STARTING_POSITION, new String[0]);
+	}
+
+	public static void main(String[] args) throws IOException {
+		PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true);
+		System.setOut(System.err);
+		new UCI(out).run(new BufferedReader(new InputStreamReader(System.in)));
+	}
+
+	/**
+	 * reads and handles commands until quit (or the input ends)
+	 *
+	 * @param in where commands are read from
+	 * @throws IOException if the commands can't be read
+	 */
+	public void run(BufferedReader in) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (!handle(line.trim())) {
+				break;
+			}
+		}
+		stopSearch();
+	}
+
+	/**
+	 * handles a single command
+	 *
+	 * @param line the command
+	 * @return false if the engine should quit, true otherwise
+	 */
+	public boolean handle(String line) {
+		String[] words = line.split("\\s+");
+
+		switch (words[0]) {
+		case "uci":
+			send("id name Chess");
+			send("id author John Hoffmann");
+			send("option name Difficulty type combo default " + DifficultyLevel.BESTBOT.name() + " var "
+					+ DifficultyLevel.BESTBOT.name() + " var " + DifficultyLevel.NOOBBOT.name());
+			send("option name Threads type spin default 1 min 1 max 64");
+			send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max 1024");
+			send("uciok");
+			break;
+		case "debug":
+			debug = words.length > 1 && words[1].equals("on");
+			break;
+		case "isready":
+			send("readyok");
+			break;
+		case "setoption":
+			stopSearch();
+			setOption(line);
+			break;
+		case "ucinewgame":
+			stopSearch();
+			ai = null; // a new AI forgets everything from the last game
+			break;
+		case "position":
+			stopSearch();
+			position(words);
+			break;
+		case "go":
+			go(words);
+			break;
+		case "stop":
+			stopSearch();
+			break;
+		case "quit":
+			return false;
+		default:
+			// unknown commands are ignored
+		}
+		return true;
+	}
+
+	/**
+	 * handles "setoption name [name] value [value]"
+	 *
+	 * @param line the command
+	 */
+	private void setOption(String line) {
+		int nameStart = line.indexOf(" name ");
+		int valueStart = line.indexOf(" value ");
+		if (nameStart < 0 || valueStart < 0) {
+			return;
+		}
+		String name = line.substring(nameStart + 6, valueStart).trim();
+		String value = line.substring(valueStart + 7).trim();
+
+		try {
+			if (name.equalsIgnoreCase("Difficulty")) {
+				difficulty = DifficultyLevel.valueOf(value.toUpperCase());
+				ai = null;
+			} else if (name.equalsIgnoreCase("Threads")) {
+				threads = Math.max(Integer.parseInt(value), 1);
+				if (ai != null) {
+					ai.setThreads(threads);
+				}
+			} else if (name.equalsIgnoreCase("Hash")) {
+				hashSize = Math.max(Integer.parseInt(value), 1);
+				if (ai != null) {
+					ai.setHashSize(hashSize);
+				}
+			} else {
+				send("info string unknown option " + name);
+			}
+		} catch (IllegalArgumentException e) {
+			send("info string bad value for " + name + ": " + value);
+		}
+	}
+
+	/**
+	 * handles "position startpos [moves ...]" and "position fen [FEN] [moves
+	 * ...]"
+	 *
+	 * @param words the command's words
+	 */
+	private void position(String[] words) {
+		int movesStart = words.length;
+		for (int i = 1; i < words.length; i++) {
+			if (words[i].equals("moves")) {
+				movesStart = i;
+				break;
+			}
+		}
+		String[] moves = new String[Math.max(words.length - movesStart - 1, 0)];
+		System.arraycopy(words, Math.min(movesStart + 1, words.length), moves, 0, moves.length);
+
+		try {
+			if (words.length > 1 && words[1].equals("startpos")) {
+				setPosition(FEN.STARTING_POSITION, moves);
+			} else if (words.length > 1 && words[1].equals("fen")) {
+				setPosition(String.join(" ", Arrays.copyOfRange(words, 2, movesStart)), moves);
+			}
+		} catch (IllegalArgumentException e) {
+			send("info string " + e.getMessage());
+		}
+	}
+
+	/**
+	 * sets up the position from a FEN, then plays the given moves, keeping the
+	 * history and keys the AI needs to see repetitions
+	 *
+	 * @param fen   the starting position
+	 * @param moves the moves played since, in coordinate notation
+	 * @throws IllegalArgumentException if the FEN can't be read
+	 */
+	private void setPosition(String fen, String[] moves) {
+		position = FEN.toPosition(fen);
+		history = new LinkedList<Move>();
+		keyHistory = new KeyHistory();
+
+		int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+		for (String text : moves) {
+			int move = findMove(text, legalMoves);
+			if (move == MoveEncoder.NO_MOVE) {
+				send("info string illegal move " + text);
+				break;
+			}
+
+			// the game's history is made of game.Moves on the pieces
+			history.add(new Move(move, Converter.toPieces(position)));
+			keyHistory.add(position.getKey());
+			position.makeMove(move);
+		}
+		pieces = Converter.toPieces(position);
+	}
+
+	/**
+	 * @param text  a move in coordinate notation
+	 * @param moves a move list to generate the legal moves into
+	 * @return the legal packed move that matches the text, NO_MOVE if there isn't
+	 *         one
+	 */
+	private int findMove(String text, int[] moves) {
+		int count = MoveGenerator.getLegalMoves(position, moves);
+		for (int i = 0; i < count; i++) {
+			if (MoveEncoder.toString(moves[i]).equals(text)) {
+				return moves[i];
+			}
+		}
+		return MoveEncoder.NO_MOVE;
+	}
+
+	/**
+	 * handles "go [wtime x] [btime x] [winc x] [binc x] [movetime x] [infinite]",
+	 * starting the search on its own thread
+	 *
+	 * @param words the command's words
+	 */
+	private void go(String[] words) {
+		if (searchThread != null && searchThread.isAlive()) {
+			send("info string already searching, go ignored");
+			return;
+		}
+		Color color = position.getSideToMove();
+		long moveTime = 0;
+		long clockTime = 0;
+		long increment = 0;
+		infinite = false;
+
+		for (int i = 1; i < words.length; i++) {
+			String value = i + 1 < words.length ? words[i + 1] : "0";
+			try {
+				switch (words[i]) {
+				case "wtime":
+				case "btime":
+					// a clock can go negative when the GUI's overhead is counted
+					if (words[i].charAt(0) == (color == Color.WHITE ? 'w' : 'b')) {
+						clockTime = Math.max(Long.parseLong(value), 1);
+					}
+					break;
+				case "winc":
+				case "binc":
+					if (words[i].charAt(0) == (color == Color.WHITE ? 'w' : 'b')) {
+						increment = Math.max(Long.parseLong(value), 0);
+					}
+					break;
+				case "movetime":
+					moveTime = Math.max(Long.parseLong(value), 1);
+					break;
+				case "infinite":
+					infinite = true;
+					moveTime = Long.MAX_VALUE / 4; // until stop is sent
+					break;
+				default:
+				}
+			} catch (NumberFormatException e) {
+				send("info string bad value for " + words[i] + ": " + value);
+			}
+		}
+
+		if (ai == null) {
+			ai = new AI();
+			ai.setThreads(threads);
+			ai.setHashSize(hashSize);
+			ai.initialize(color, difficulty);
+			ai.getSearcher().setListener(this);
+		}
+		ai.setColor(color);
+		ai.setMoveTime(moveTime);
+		ai.setClock(clockTime, increment);
+		ai.clearStop(); // before the thread starts, so a quick stop still reaches it
+		stopRequested = false;
+
+		searchThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				search();
+			}
+		}, "UCI Search");
+		searchThread.start();
+	}
+
+	/**
+	 * finds the AI's move and sends it (runs on the search thread)
+	 */
+	private void search() {
+		String bestMove = "0000"; // there are no legal moves
+
+		if (MoveGenerator.hasLegalMove(position)) {
+			AIMove move = ai.makeMove(pieces, position, keyHistory);
+			bestMove = MoveEncoder.toString(move.getMove());
+			if (debug) {
+				Printer.printBestThreeMoves(ai);
+			}
+
+			// difficulties that don't look ahead still say what they found
+			if (ai.getSearcher().getCompletedDepth() == 0) {
+				send("info depth 1 score cp " + Math.round(move.getScore() * 100) + " pv " + bestMove);
+			}
+		}
+
+		// an infinite search waits to be stopped before giving its move
+		synchronized (this) {
+			while (infinite && !stopRequested) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+		}
+		send("bestmove " + bestMove);
+	}
+
+	/**
+	 * stops the search (if there is one) and waits for it to send its move
+	 */
+	private void stopSearch() {
+		if (searchThread == null) {
+			return;
+		}
+		synchronized (this) {
+			stopRequested = true;
+			notifyAll();
+		}
+		ai.stop();
+		try {
+			searchThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		searchThread = null;
+	}
+
+	@Override
+	public void depthFinished(Searcher searcher, int depth, int score, int[] pv, int pvLength) {
+		long time = searcher.getElapsedTime();
+		long nodes = searcher.getNodes();
+		StringBuilder info = new StringBuilder("info depth ").append(depth);
+
+		// mates are given in moves (negative if the AI is getting mated)
+		if (score > MATE_BOUND) {
+			info.append(" score mate ").append((Searcher.MATE - score + 1) / 2);
+		} else if (score < -MATE_BOUND) {
+			info.append(" score mate ").append(-(Searcher.MATE + score) / 2);
+		} else {
+			info.append(" score cp ").append(score);
+		}
+		info.append(" nodes ").append(nodes);
+		info.append(" nps ").append(time == 0 ? nodes * 1000 : nodes * 1000 / time);
+		info.append(" time ").append(time);
+		info.append(" pv");
+		for (int i = 0; i < pvLength; i++) {
+			info.append(' ').append(MoveEncoder.toString(pv[i]));
+		}
+		send(info.toString());
+	}
+
+	/**
+	 * sends a line to the program using the engine (from any thread)
+	 *
+	 * @param line the line being sent
+	 */
+	private synchronized void send(String line) {
+		out.println(line);
+	}
+}